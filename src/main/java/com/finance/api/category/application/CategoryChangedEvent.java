@@ -0,0 +1,7 @@
+package com.finance.api.category.application;
+
+import java.util.UUID;
+
+import com.finance.api.common.event.UserDataChanged;
+
+public record CategoryChangedEvent(UUID userId, UUID categoryId) implements UserDataChanged { }
@@ -2,6 +2,7 @@ package com.finance.api.category.application;
 
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -21,9 +22,11 @@ import com.finance.api.common.util.SpecificationUtils;
 public class CategoryService {
 
   private final CategoryRepository repo;
+  private final ApplicationEventPublisher events;
 
-  public CategoryService(CategoryRepository repo) {
+  public CategoryService(CategoryRepository repo, ApplicationEventPublisher events) {
     this.repo = repo;
+    this.events = events;
   }
 
   @Transactional
@@ -36,7 +39,7 @@ public class CategoryService {
     e.setName(in.name());
     e.setColor(blankToNull(in.color()));
     e.setArchived(false);
-    return toResponse(repo.save(e));
+    return changed(userId, repo.save(e));
   }
 
   @Transactional(readOnly = true)
@@ -68,7 +71,7 @@ public class CategoryService {
 
     e.setName(in.name());
     e.setColor(blankToNull(in.color()));
-    return toResponse(repo.save(e));
+    return changed(userId, repo.save(e));
   }
 
   @Transactional
@@ -76,7 +79,7 @@ public class CategoryService {
     var e = repo.findByIdAndUserId(id, userId)
         .orElseThrow(() -> new NotFoundException("Category not found"));
     e.setArchived(Boolean.TRUE.equals(in.archived()));
-    return toResponse(repo.save(e));
+    return changed(userId, repo.save(e));
   }
 
   @Transactional
@@ -84,9 +87,15 @@ public class CategoryService {
     var e = repo.findByIdAndUserId(id, userId)
         .orElseThrow(() -> new NotFoundException("Category not found"));
     repo.delete(e);
+    events.publishEvent(new CategoryChangedEvent(userId, id));
   }
 
 
+  private CategoryResponse changed(UUID userId, CategoryEntity e) {
+    events.publishEvent(new CategoryChangedEvent(userId, e.getId()));
+    return toResponse(e);
+  }
+
   private CategoryResponse toResponse(CategoryEntity e) {
     return new CategoryResponse(e.getId(), e.getName(), e.getColor(), e.isArchived());
   }
@@ -0,0 +1,6 @@
+package com.finance.api.common.api;
+
+import java.util.List;
+
+/** Keyset page envelope: no total count, only the token to fetch the next page (null on the last one). */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) { }
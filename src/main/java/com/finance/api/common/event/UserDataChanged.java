@@ -0,0 +1,8 @@
+package com.finance.api.common.event;
+
+import java.util.UUID;
+
+/** Marker for events that change data a user can read; bumps the user's data version. */
+public interface UserDataChanged {
+  UUID userId();
+}
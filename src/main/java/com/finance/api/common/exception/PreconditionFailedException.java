@@ -0,0 +1,9 @@
+package com.finance.api.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends BaseAppException {
+  public PreconditionFailedException(String message) {
+    super(message, HttpStatus.PRECONDITION_FAILED, "PRECONDITION_FAILED");
+  }
+}
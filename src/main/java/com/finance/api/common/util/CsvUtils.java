@@ -0,0 +1,71 @@
+package com.finance.api.common.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvUtils {
+
+    private CsvUtils() {
+    }
+
+    /** Quotes a field per RFC 4180 when it contains a separator, quote or line break. */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Reads the next RFC 4180 record, or returns null at end of input. Quoted fields may
+     * contain separators and line breaks; both LF and CRLF terminate a record.
+     */
+    public static List<String> readRecord(BufferedReader in) throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+}
@@ -21,6 +21,7 @@ public class CorsConfig {
     cors.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
     cors.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
     cors.setAllowedHeaders(List.of("*"));
+    cors.setExposedHeaders(List.of("ETag"));
     cors.setAllowCredentials(true); 
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,24 @@
+package com.finance.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.finance.api.dataversion.web.DataVersionEtagInterceptor;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+  private final DataVersionEtagInterceptor etags;
+
+  public WebMvcConfig(DataVersionEtagInterceptor etags) {
+    this.etags = etags;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(etags)
+        .addPathPatterns("/records", "/records/cursor", "/categories", "/recurrences", "/recurrences/occurrences",
+            "/reports/**");
+  }
+}
@@ -0,0 +1,51 @@
+package com.finance.api.dataversion.application;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.finance.api.common.event.UserDataChanged;
+import com.finance.api.dataversion.persistence.DataVersionStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-user counter of writes to records and categories. The bump commits with the write;
+ * reads come from a node-local cache that this node refreshes on its own commits and that
+ * expires after {@code app.data-version.cache-ttl}, which bounds staleness for writes made
+ * on other nodes.
+ */
+@Service
+public class DataVersionService {
+
+    private final DataVersionStore store;
+    private final Cache<UUID, Long> versions;
+
+    public DataVersionService(DataVersionStore store,
+            @Value("${app.data-version.cache-ttl:PT2S}") Duration cacheTtl,
+            @Value("${app.data-version.cache-max-size:100000}") long cacheMaxSize) {
+        this.store = store;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    public long current(UUID userId) {
+        return versions.get(userId, store::find);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void bump(UserDataChanged event) {
+        store.increment(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void forget(UserDataChanged event) {
+        versions.invalidate(event.userId());
+    }
+}
@@ -0,0 +1,32 @@
+package com.finance.api.dataversion.persistence;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class DataVersionStore {
+
+  private final JdbcTemplate jdbc;
+
+  public DataVersionStore(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Current version; 0 for a user who never wrote anything. */
+  public long find(UUID userId) {
+    List<Long> rows = jdbc.queryForList("select version from user_data_version where user_id = ?", Long.class, userId);
+    return rows.isEmpty() ? 0 : rows.get(0);
+  }
+
+  public long increment(UUID userId) {
+    Long version = jdbc.queryForObject("""
+        insert into user_data_version (user_id, version) values (?, 1)
+        on conflict (user_id) do update set version = user_data_version.version + 1
+        returning version
+        """, Long.class, userId);
+    return version == null ? 0 : version;
+  }
+}
@@ -0,0 +1,94 @@
+package com.finance.api.dataversion.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.finance.api.dataversion.application.DataVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conditional GET for list and report endpoints. The ETag hashes the user's data version with
+ * the request path and query (and today's date, since reports default their period to it),
+ * so a matching If-None-Match is answered with 304 before the controller runs any query.
+ */
+@Component
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService versions;
+
+    public DataVersionEtagInterceptor(DataVersionService versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        UUID userId = currentUserId();
+        if (userId == null) {
+            return true;
+        }
+
+        String etag = etag(userId, versions.current(userId), request);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.ETAG, etag);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(UUID userId, long version, HttpServletRequest request) {
+        String key = userId + "|" + version + "|" + LocalDate.now(ZoneOffset.UTC) + "|"
+                + request.getRequestURI() + "?" + (request.getQueryString() == null ? "" : request.getQueryString());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "\"" + version + "-" + HexFormat.of().formatHex(digest, 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static UUID currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return null;
+        }
+        if (auth.getPrincipal() instanceof UUID id) {
+            return id;
+        }
+        try {
+            return UUID.fromString(auth.getName());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
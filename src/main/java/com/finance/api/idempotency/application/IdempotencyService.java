@@ -0,0 +1,265 @@
+package com.finance.api.idempotency.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.api.common.exception.ConflictException;
+import com.finance.api.idempotency.domain.IdempotencyEntry;
+import com.finance.api.idempotency.domain.IdempotencyStatus;
+import com.finance.api.idempotency.persistence.IdempotencyStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Runs a mutating operation at most once per (user, scope, key) and replays its stored result
+ * to retries. The key is reserved in its own transaction before the work starts, so a
+ * concurrent duplicate waits for the first result instead of repeating the work; it gets
+ * a 409 when the first call is still running after {@code app.idempotency.wait-timeout}.
+ * <p>
+ * Reserving and waiting must not happen inside a transaction: the caller's connection would
+ * stay checked out while the duplicate polls, and enough of them exhaust the pool. Callers
+ * therefore enter {@link #execute} without one and the work gets its transaction here.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    /** Reservation attempts before giving up with a 409; each retry backs off further. */
+    private static final int MAX_RESERVE_ATTEMPTS = 5;
+
+    private record CacheKey(UUID userId, String scope, String key) {}
+
+    private final IdempotencyStore store;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate required;
+    private final Cache<CacheKey, Object> recent;
+    private final Duration lease;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+    private final int purgeBatchSize;
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper mapper, PlatformTransactionManager txManager,
+            @Value("${app.idempotency.lease:PT5M}") Duration lease,
+            @Value("${app.idempotency.ttl:P7D}") Duration ttl,
+            @Value("${app.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+            @Value("${app.idempotency.poll-interval:PT0.1S}") Duration pollInterval,
+            @Value("${app.idempotency.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${app.idempotency.cache.ttl:PT10M}") Duration cacheTtl,
+            @Value("${app.idempotency.purge.batch-size:1000}") int purgeBatchSize) {
+        this.store = store;
+        this.mapper = mapper;
+        this.requiresNew = new TransactionTemplate(txManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.required = new TransactionTemplate(txManager);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl.compareTo(ttl) < 0 ? cacheTtl : ttl)
+                .build();
+        this.lease = lease;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Returns the stored result for {@code key}, or runs {@code action} and stores its result in
+     * one transaction, so the result commits with the work. A blank key disables idempotency and
+     * simply runs the action in a transaction.
+     */
+    public <T> T execute(UUID userId, String scope, String key, Class<T> type, Supplier<T> action) {
+        return run(userId, scope, key, type, () -> required.execute(status -> {
+            T result = action.get();
+            complete(userId, scope, key, result);
+            return result;
+        }));
+    }
+
+    /**
+     * Like {@link #execute}, for work that commits in several transactions of its own: the
+     * action must store its result with {@link #complete} in its last transaction.
+     */
+    public <T> T executeSelfCompleting(UUID userId, String scope, String key, Class<T> type, Supplier<T> action) {
+        return run(userId, scope, key, type, action);
+    }
+
+    private <T> T run(UUID userId, String scope, String key, Class<T> type, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Idempotent work must start outside a transaction");
+        }
+        if (key == null || key.isBlank()) {
+            return work.get();
+        }
+        var cacheKey = new CacheKey(userId, scope, key);
+        Object cached = recent.getIfPresent(cacheKey);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+
+        UUID owner = UUID.randomUUID();
+        for (int attempt = 1; !reserve(userId, scope, key, owner); attempt++) {
+            Optional<T> done = awaitCompletion(userId, scope, key, type);
+            if (done.isPresent()) {
+                recent.put(cacheKey, done.get());
+                return done.get();
+            }
+            // The reservation was released or went stale: try to take it over.
+            if (attempt == MAX_RESERVE_ATTEMPTS) {
+                throw new ConflictException("A request with this X-Request-Id is still being processed");
+            }
+            pause(pollInterval.multipliedBy(1L << (attempt - 1)));
+        }
+
+        try {
+            return work.get();
+        } catch (RuntimeException ex) {
+            requiresNew.executeWithoutResult(status -> store.release(userId, scope, key, owner));
+            throw ex;
+        }
+    }
+
+    /**
+     * Reserves {@code key} in the caller's transaction for work a background job finishes later,
+     * so the reservation commits with the job. It is held until the key expires rather than for
+     * a lease: jobs are resumed, never abandoned, and end it with {@link #complete}. Returns
+     * false while another call holds the key or has completed it.
+     */
+    public boolean reserveForJob(UUID userId, String scope, String key) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("A job reservation must commit with the job");
+        }
+        return store.reserve(userId, scope, key, UUID.randomUUID(), ttl, ttl);
+    }
+
+    /**
+     * Waits for the call holding {@code key} as {@link #execute} does: its result once stored,
+     * empty if the reservation is released or goes stale, a 409 after
+     * {@code app.idempotency.wait-timeout}.
+     */
+    public <T> Optional<T> await(UUID userId, String scope, String key, Class<T> type) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Idempotent work must start outside a transaction");
+        }
+        Optional<T> done = awaitCompletion(userId, scope, key, type);
+        done.ifPresent(result -> recent.put(new CacheKey(userId, scope, key), result));
+        return done;
+    }
+
+    /** Completed result for {@code key}, without reserving it. */
+    public <T> Optional<T> find(UUID userId, String scope, String key, Class<T> type) {
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        var cacheKey = new CacheKey(userId, scope, key);
+        Object cached = recent.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Optional.of(type.cast(cached));
+        }
+        return store.find(userId, scope, key)
+                .filter(e -> e.status() == IdempotencyStatus.COMPLETED)
+                .map(e -> read(e, type));
+    }
+
+    /** Stores {@code result} for {@code key} in the caller's transaction; used by work that runs outside {@link #execute}. */
+    public void complete(UUID userId, String scope, String key, Object result) {
+        if (key == null || key.isBlank()) {
+            return;
+        }
+        store.complete(userId, scope, key, write(result), ttl);
+
+        var cacheKey = new CacheKey(userId, scope, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.put(cacheKey, result);
+                }
+            });
+        } else {
+            recent.put(cacheKey, result);
+        }
+    }
+
+    /** Deletes expired keys in batches so no single statement holds many row locks. */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge.interval:PT10M}")
+    public void purgeExpired() {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = store.purgeExpired(purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.debug("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    private boolean reserve(UUID userId, String scope, String key, UUID owner) {
+        return Boolean.TRUE.equals(requiresNew.execute(status -> store.reserve(userId, scope, key, owner, lease, ttl)));
+    }
+
+    /**
+     * Polls until the key completes (result), disappears or its reservation goes stale
+     * (empty, so the caller retries the reservation) or the wait times out (409).
+     */
+    private <T> Optional<T> awaitCompletion(UUID userId, String scope, String key, Class<T> type) {
+        Instant deadline = Instant.now().plus(waitTimeout);
+        while (true) {
+            Optional<IdempotencyEntry> entry = store.find(userId, scope, key);
+            if (entry.isEmpty() || entry.get().isStale(Instant.now())) {
+                return Optional.empty();
+            }
+            if (entry.get().status() == IdempotencyStatus.COMPLETED) {
+                return Optional.of(read(entry.get(), type));
+            }
+            if (Instant.now().isAfter(deadline)) {
+                throw new ConflictException("A request with this X-Request-Id is still being processed");
+            }
+            pause(pollInterval);
+        }
+    }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this X-Request-Id is still being processed");
+        }
+    }
+
+    private <T> T read(IdempotencyEntry entry, Class<T> type) {
+        try {
+            return mapper.readValue(entry.response(), type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read stored idempotent response", ex);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return mapper.writeValueAsString(result);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise idempotent response", ex);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.finance.api.idempotency.domain;
+
+import java.time.Instant;
+
+/**
+ * Stored state of one key. {@code response} is the JSON result once the key is completed;
+ * {@code lockedUntil} is when an in-flight reservation may be taken over.
+ */
+public record IdempotencyEntry(IdempotencyStatus status, String response, Instant lockedUntil) {
+
+    public boolean isStale(Instant now) {
+        return status == IdempotencyStatus.IN_FLIGHT && lockedUntil != null && lockedUntil.isBefore(now);
+    }
+}
@@ -0,0 +1,6 @@
+package com.finance.api.idempotency.domain;
+
+public enum IdempotencyStatus {
+    IN_FLIGHT,
+    COMPLETED
+}
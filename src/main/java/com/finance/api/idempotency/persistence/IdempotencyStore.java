@@ -0,0 +1,100 @@
+package com.finance.api.idempotency.persistence;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.idempotency.domain.IdempotencyEntry;
+import com.finance.api.idempotency.domain.IdempotencyStatus;
+
+/** Plain SQL access to {@code idempotency_key}; every statement is a single round trip. */
+@Repository
+public class IdempotencyStore {
+
+  private final JdbcTemplate jdbc;
+
+  public IdempotencyStore(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /**
+   * Claims the key for {@code owner}. Succeeds when the key is new, its previous reservation
+   * is still in flight past {@code lockedUntil}, or it expired but was not purged yet; an
+   * unexpired completed key is never taken over.
+   */
+  public boolean reserve(UUID userId, String scope, String key, UUID owner, Duration lease, Duration ttl) {
+    Instant now = Instant.now();
+    return !jdbc.queryForList("""
+        insert into idempotency_key (user_id, scope, idem_key, status, owner_token, locked_until, expires_at)
+        values (?, ?, ?, 'IN_FLIGHT', ?, ?, ?)
+        on conflict (user_id, scope, idem_key) do update
+          set status = 'IN_FLIGHT',
+              owner_token = excluded.owner_token,
+              locked_until = excluded.locked_until,
+              response = null,
+              completed_at = null,
+              created_at = now(),
+              expires_at = excluded.expires_at
+          where (idempotency_key.status = 'IN_FLIGHT' and idempotency_key.locked_until < now())
+             or idempotency_key.expires_at < now()
+        returning owner_token
+        """, UUID.class, userId, scope, key, owner,
+        Timestamp.from(now.plus(lease)), Timestamp.from(now.plus(ttl))).isEmpty();
+  }
+
+  public Optional<IdempotencyEntry> find(UUID userId, String scope, String key) {
+    return jdbc.query("""
+        select status, response::text, locked_until
+        from idempotency_key
+        where user_id = ? and scope = ? and idem_key = ? and expires_at > now()
+        """, (rs, i) -> {
+          Timestamp lockedUntil = rs.getTimestamp(3);
+          return new IdempotencyEntry(IdempotencyStatus.valueOf(rs.getString(1)), rs.getString(2),
+              lockedUntil == null ? null : lockedUntil.toInstant());
+        },
+        userId, scope, key).stream().findFirst();
+  }
+
+  /** Stores the result, whether or not the key was reserved first. */
+  public void complete(UUID userId, String scope, String key, String responseJson, Duration ttl) {
+    jdbc.update("""
+        insert into idempotency_key (user_id, scope, idem_key, status, response, completed_at, expires_at)
+        values (?, ?, ?, 'COMPLETED', ?::jsonb, now(), ?)
+        on conflict (user_id, scope, idem_key) do update
+          set status = 'COMPLETED',
+              owner_token = null,
+              locked_until = null,
+              response = excluded.response,
+              completed_at = excluded.completed_at,
+              expires_at = excluded.expires_at
+        """, userId, scope, key, responseJson, Timestamp.from(Instant.now().plus(ttl)));
+  }
+
+  /** Drops a reservation still held by {@code owner} so the key can be retried at once. */
+  public void release(UUID userId, String scope, String key, UUID owner) {
+    jdbc.update("""
+        delete from idempotency_key
+        where user_id = ? and scope = ? and idem_key = ? and status = 'IN_FLIGHT' and owner_token = ?
+        """, userId, scope, key, owner);
+  }
+
+  /** Deletes up to {@code limit} expired keys, skipping rows other transactions hold. */
+  public int purgeExpired(int limit) {
+    return jdbc.update("""
+        delete from idempotency_key k
+        using (
+          select user_id, scope, idem_key
+          from idempotency_key
+          where expires_at < now()
+          limit ?
+          for update skip locked
+        ) expired
+        where k.user_id = expired.user_id and k.scope = expired.scope and k.idem_key = expired.idem_key
+        """, limit);
+  }
+}
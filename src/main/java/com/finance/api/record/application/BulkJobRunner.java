@@ -0,0 +1,118 @@
+package com.finance.api.record.application;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.finance.api.record.domain.RecordRequest;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs bulk jobs on virtual threads, at most {@code app.records.bulk.jobs.workers} at a time.
+ * Jobs are picked up right after submission and by a periodic poll, which also resumes jobs
+ * whose previous worker died (its lease expired), including after a restart.
+ * <p>
+ * Each chunk holds its user's change lock (V11) until it commits, so that user's interactive
+ * writes wait for at most one chunk ({@code app.records.bulk.jobs.chunk-size}) rather than
+ * the whole job.
+ */
+@Component
+public class BulkJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkJobRunner.class);
+
+    private final BulkJobService jobs;
+    private final Semaphore slots;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final String owner = UUID.randomUUID().toString();
+    private final ReentrantLock dispatching = new ReentrantLock();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    public BulkJobRunner(BulkJobService jobs, @Value("${app.records.bulk.jobs.workers:4}") int workers) {
+        this.jobs = jobs;
+        this.slots = new Semaphore(workers);
+    }
+
+    @TransactionalEventListener
+    public void onSubmitted(BulkJobSubmitted event) {
+        executor.execute(this::dispatch);
+    }
+
+    /**
+     * Claims jobs while slots are free. Never blocks: a call that finds another dispatch in
+     * progress only leaves a request behind, which that dispatch picks up before it returns.
+     * A lock rather than {@code synchronized}, since {@code claimNext} does JDBC work and this
+     * runs on virtual threads, which a monitor would pin to their carrier.
+     */
+    @Scheduled(fixedDelayString = "${app.records.bulk.jobs.poll-interval:PT5S}")
+    public void dispatch() {
+        requested.set(true);
+        while (requested.get() && dispatching.tryLock()) {
+            try {
+                requested.set(false);
+                claimWhileFree();
+            } finally {
+                dispatching.unlock();
+            }
+        }
+    }
+
+    private void claimWhileFree() {
+        while (slots.tryAcquire()) {
+            var next = jobs.claimNext(owner);
+            if (next.isEmpty()) {
+                slots.release();
+                return;
+            }
+            UUID jobId = next.get();
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private void run(UUID jobId) {
+        try {
+            List<RecordRequest> items = jobs.loadItems(jobId);
+            boolean more = true;
+            while (more) {
+                try {
+                    more = jobs.commitChunk(jobId, owner, items);
+                } catch (OptimisticLockingFailureException ex) {
+                    // Our lease ran out and another worker took the job; the chunk was rolled back.
+                    log.info("bulk job {} taken over by another worker", jobId);
+                    return;
+                } catch (DataAccessException ex) {
+                    log.warn("bulk job {} chunk rejected: {}", jobId, ex.getMostSpecificCause().getMessage());
+                    more = jobs.skipChunk(jobId, owner, items.size());
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("bulk job {} failed", jobId, ex);
+            jobs.fail(jobId, owner, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
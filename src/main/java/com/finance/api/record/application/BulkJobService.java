@@ -0,0 +1,253 @@
+package com.finance.api.record.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.api.common.exception.ConflictException;
+import com.finance.api.common.exception.NotFoundException;
+import com.finance.api.idempotency.application.IdempotencyService;
+import com.finance.api.record.domain.BulkJobResponse;
+import com.finance.api.record.domain.BulkJobStatus;
+import com.finance.api.record.domain.BulkResult;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.persistence.BulkJobEntity;
+import com.finance.api.record.persistence.BulkJobRepository;
+
+/**
+ * Durable state of asynchronous bulk jobs. Each chunk commits together with the job's
+ * progress counters, so a job resumed after a crash or lease expiry continues exactly
+ * where the last committed chunk ended. The job row is versioned: a worker that lost its
+ * lease while writing a chunk fails with an optimistic lock error and its chunk rolls back.
+ */
+@Service
+public class BulkJobService {
+
+    private static final TypeReference<List<RecordRequest>> ITEMS = new TypeReference<>() { };
+
+    /** Rounds of reserving, finding the job and waiting before a submit gives up with a 409. */
+    private static final int MAX_SUBMIT_ATTEMPTS = 5;
+
+    private final BulkJobRepository jobs;
+    private final RecordService records;
+    private final IdempotencyService idempotency;
+    private final ObjectMapper mapper;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final Duration lease;
+
+    public BulkJobService(BulkJobRepository jobs, RecordService records, IdempotencyService idempotency,
+            ObjectMapper mapper, ApplicationEventPublisher events, TransactionTemplate tx,
+            @Value("${app.records.bulk.jobs.chunk-size:1000}") int chunkSize,
+            @Value("${app.records.bulk.jobs.lease:PT2M}") Duration lease) {
+        this.jobs = jobs;
+        this.records = records;
+        this.idempotency = idempotency;
+        this.mapper = mapper;
+        this.events = events;
+        this.tx = tx;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+    }
+
+    /**
+     * Stores the items and returns the pending job. An X-Request-Id is reserved in the
+     * {@link RecordService#BULK_SCOPE} scope in the transaction that creates the job and held
+     * until the job finishes, so sync bulk calls with the same key wait for it and replay its
+     * result. A repeated key returns the job already created for it, or a completed job
+     * replaying a sync call's result; while a sync call still runs it, this waits like one.
+     * Not transactional: waiting must not hold a connection.
+     */
+    public BulkJobResponse submit(UUID userId, List<RecordRequest> items, String requestId) {
+        if (requestId == null || requestId.isBlank()) {
+            return toResponse(tx.execute(status -> enqueue(userId, items, null)));
+        }
+        for (int attempt = 1; attempt <= MAX_SUBMIT_ATTEMPTS; attempt++) {
+            var existing = existingJob(userId, requestId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            Optional<BulkJobEntity> started;
+            try {
+                started = tx.execute(status ->
+                        idempotency.reserveForJob(userId, RecordService.BULK_SCOPE, requestId)
+                                ? Optional.of(enqueue(userId, items, requestId))
+                                : Optional.<BulkJobEntity>empty());
+            } catch (DataIntegrityViolationException ex) {
+                // uk_bulk_job_user_request: a concurrent submit created the job first.
+                continue;
+            }
+            if (started.isPresent()) {
+                return toResponse(started.get());
+            }
+            // A concurrent submit that won the key has committed its job by now.
+            existing = existingJob(userId, requestId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            var replay = idempotency.await(userId, RecordService.BULK_SCOPE, requestId, BulkResult.class);
+            if (replay.isPresent()) {
+                try {
+                    return toResponse(tx.execute(status -> completed(userId, items.size(), requestId, replay.get())));
+                } catch (DataIntegrityViolationException ex) {
+                    continue;
+                }
+            }
+        }
+        throw new ConflictException("A request with this X-Request-Id is still being processed");
+    }
+
+    private Optional<BulkJobResponse> existingJob(UUID userId, String requestId) {
+        return tx.execute(status -> jobs.findByUserIdAndRequestId(userId, requestId).map(BulkJobService::toResponse));
+    }
+
+    private BulkJobEntity enqueue(UUID userId, List<RecordRequest> items, String requestId) {
+        var job = new BulkJobEntity();
+        job.setUserId(userId);
+        job.setRequestId(requestId);
+        job.setTotalCount(items.size());
+        job.setStatus(BulkJobStatus.PENDING);
+        job = jobs.saveAndFlush(job);
+        jobs.savePayload(job.getId(), write(items));
+        events.publishEvent(new BulkJobSubmitted(job.getId()));
+        return job;
+    }
+
+    private BulkJobEntity completed(UUID userId, int total, String requestId, BulkResult replay) {
+        var job = new BulkJobEntity();
+        job.setUserId(userId);
+        job.setRequestId(requestId);
+        job.setTotalCount(total);
+        job.setStatus(BulkJobStatus.COMPLETED);
+        job.setProcessedCount(total);
+        job.setCreatedCount(replay.created());
+        job.setFailedCount(replay.failed());
+        job.setFinishedAt(Instant.now());
+        return jobs.saveAndFlush(job);
+    }
+
+    @Transactional(readOnly = true)
+    public BulkJobResponse get(UUID userId, UUID jobId) {
+        return jobs.findByIdAndUserId(jobId, userId)
+                .map(BulkJobService::toResponse)
+                .orElseThrow(() -> new NotFoundException("Bulk job not found"));
+    }
+
+    /** Leases the oldest runnable job to {@code owner}, if any. */
+    @Transactional
+    public Optional<UUID> claimNext(String owner) {
+        return jobs.lockNextRunnable().map(job -> {
+            job.setStatus(BulkJobStatus.RUNNING);
+            job.setLeaseOwner(owner);
+            job.setLeaseUntil(Instant.now().plus(lease));
+            return job.getId();
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecordRequest> loadItems(UUID jobId) {
+        String json = jobs.findPayload(jobId).orElse("[]");
+        try {
+            return mapper.readValue(json, ITEMS);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Corrupt payload for bulk job " + jobId, ex);
+        }
+    }
+
+    /**
+     * Inserts the next chunk and advances the job in the same transaction.
+     * Returns false once the job is finished or no longer leased by {@code owner}.
+     */
+    @Transactional
+    public boolean commitChunk(UUID jobId, String owner, List<RecordRequest> items) {
+        var job = leased(jobId, owner);
+        if (job == null) {
+            return false;
+        }
+        int from = job.getProcessedCount();
+        int to = Math.min(from + chunkSize, items.size());
+        int rejected = records.createAllIsolating(job.getUserId(), items.subList(from, to), from).size();
+        return advance(job, owner, to, (to - from) - rejected, rejected);
+    }
+
+    /** Counts the next chunk as failed after an unexpected error rolled it back. */
+    @Transactional
+    public boolean skipChunk(UUID jobId, String owner, int total) {
+        var job = leased(jobId, owner);
+        if (job == null) {
+            return false;
+        }
+        int from = job.getProcessedCount();
+        int to = Math.min(from + chunkSize, total);
+        return advance(job, owner, to, 0, to - from);
+    }
+
+    @Transactional
+    public void fail(UUID jobId, String owner, String error) {
+        var job = leased(jobId, owner);
+        if (job != null) {
+            job.setStatus(BulkJobStatus.FAILED);
+            job.setError(error);
+            job.setLeaseOwner(null);
+            job.setLeaseUntil(null);
+            job.setFinishedAt(Instant.now());
+            jobs.deletePayload(jobId);
+            // Committed chunks stay; a retry with the key replays them instead of inserting them again.
+            idempotency.complete(job.getUserId(), RecordService.BULK_SCOPE, job.getRequestId(),
+                    new BulkResult(job.getCreatedCount(), job.getTotalCount() - job.getCreatedCount()));
+        }
+    }
+
+    private BulkJobEntity leased(UUID jobId, String owner) {
+        return jobs.findById(jobId)
+                .filter(j -> j.getStatus() == BulkJobStatus.RUNNING && owner.equals(j.getLeaseOwner()))
+                .orElse(null);
+    }
+
+    private boolean advance(BulkJobEntity job, String owner, int processed, int created, int failed) {
+        job.setProcessedCount(processed);
+        job.setCreatedCount(job.getCreatedCount() + created);
+        job.setFailedCount(job.getFailedCount() + failed);
+
+        if (processed < job.getTotalCount()) {
+            job.setLeaseUntil(Instant.now().plus(lease));
+            return true;
+        }
+
+        job.setStatus(BulkJobStatus.COMPLETED);
+        job.setLeaseOwner(null);
+        job.setLeaseUntil(null);
+        job.setFinishedAt(Instant.now());
+        jobs.deletePayload(job.getId());
+
+        idempotency.complete(job.getUserId(), RecordService.BULK_SCOPE, job.getRequestId(),
+                new BulkResult(job.getCreatedCount(), job.getFailedCount()));
+        return false;
+    }
+
+    private String write(List<RecordRequest> items) {
+        try {
+            return mapper.writeValueAsString(items);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise bulk job payload", ex);
+        }
+    }
+
+    private static BulkJobResponse toResponse(BulkJobEntity e) {
+        return new BulkJobResponse(e.getId(), e.getStatus(), e.getTotalCount(), e.getProcessedCount(),
+                e.getCreatedCount(), e.getFailedCount(), e.getCreatedAt(), e.getFinishedAt());
+    }
+}
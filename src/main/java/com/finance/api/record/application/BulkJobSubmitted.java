@@ -0,0 +1,6 @@
+package com.finance.api.record.application;
+
+import java.util.UUID;
+
+/** Published when a bulk job is stored so workers can pick it up once the transaction commits. */
+public record BulkJobSubmitted(UUID jobId) { }
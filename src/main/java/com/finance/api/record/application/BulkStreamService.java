@@ -0,0 +1,116 @@
+package com.finance.api.record.application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.idempotency.application.IdempotencyService;
+import com.finance.api.record.domain.BulkItemError;
+import com.finance.api.record.domain.BulkResult;
+import com.finance.api.record.domain.RecordRequest;
+
+/**
+ * Bulk create for large JSON arrays. Items are read one at a time from the request stream,
+ * validated, and written in batches of {@code app.records.bulk.batch-size}, so memory grows
+ * with the batch size rather than with the payload.
+ */
+@Service
+public class BulkStreamService {
+
+    private final RecordService records;
+    private final IdempotencyService idempotency;
+    private final ObjectMapper mapper;
+    private final int batchSize;
+
+    public BulkStreamService(RecordService records, IdempotencyService idempotency, ObjectMapper mapper,
+            @Value("${app.records.bulk.batch-size:500}") int batchSize) {
+        this.records = records;
+        this.idempotency = idempotency;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Items that fail to bind or validate, and rows the database rejects, are reported per index;
+     * the rest commit together. Not transactional: the key is reserved before the transaction starts.
+     */
+    public BulkResult bulkCreate(UUID userId, InputStream body, String requestId) {
+        return idempotency.execute(userId, RecordService.BULK_SCOPE, requestId, BulkResult.class,
+                () -> createFrom(userId, body));
+    }
+
+    private BulkResult createFrom(UUID userId, InputStream body) {
+        int created = 0, index = 0;
+        List<BulkItemError> errors = new ArrayList<>();
+        List<RecordRequest> batch = new ArrayList<>(batchSize);
+        List<Integer> positions = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = mapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Body must be a JSON array of records");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new BadRequestException("Unexpected end of JSON array");
+                }
+                JsonNode node = parser.readValueAsTree();
+                int position = index++;
+                RecordRequest in;
+                try {
+                    in = mapper.treeToValue(node, RecordRequest.class);
+                } catch (JsonProcessingException | IllegalArgumentException ex) {
+                    errors.add(new BulkItemError(position, "Invalid record: " + originalMessage(ex)));
+                    continue;
+                }
+                String violation = RecordRequestValidator.violation(in);
+                if (violation != null) {
+                    errors.add(new BulkItemError(position, violation));
+                    continue;
+                }
+                batch.add(in);
+                positions.add(position);
+                if (batch.size() == batchSize) {
+                    created += flush(userId, batch, positions, errors);
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("Malformed JSON: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        created += flush(userId, batch, positions, errors);
+
+        errors.sort(Comparator.comparingInt(BulkItemError::index));
+        return new BulkResult(created, errors.size(), errors);
+    }
+
+    /** Inserts the batch, isolating rejected rows, and reports them at their request positions. */
+    private int flush(UUID userId, List<RecordRequest> batch, List<Integer> positions, List<BulkItemError> errors) {
+        var rejected = records.createAllIsolating(userId, batch, 0);
+        for (var e : rejected) {
+            errors.add(new BulkItemError(positions.get(e.index()), e.message()));
+        }
+        int created = batch.size() - rejected.size();
+        batch.clear();
+        positions.clear();
+        return created;
+    }
+
+    private static String originalMessage(Exception ex) {
+        return ex instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : ex.getMessage();
+    }
+}
@@ -0,0 +1,66 @@
+package com.finance.api.record.application;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.finance.api.record.persistence.RecordArchiveStore;
+
+/**
+ * Moves settled (PAID, RECEIVED, CANCELED) records due more than {@code app.records.archive.horizon}
+ * ago into the archive table, one short transaction per batch so live writes are not held up.
+ * Several nodes can run it at once: each batch skips rows another one has locked.
+ */
+@Component
+public class RecordArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordArchiver.class);
+
+    private final RecordArchiveStore store;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final Period horizon;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public RecordArchiver(RecordArchiveStore store, TransactionTemplate tx,
+            @Value("${app.records.archive.enabled:true}") boolean enabled,
+            @Value("${app.records.archive.horizon:P2Y}") Period horizon,
+            @Value("${app.records.archive.batch-size:5000}") int batchSize,
+            @Value("${app.records.archive.max-batches:200}") int maxBatches) {
+        this.store = store;
+        this.tx = tx;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${app.records.archive.interval:PT1H}",
+            initialDelayString = "${app.records.archive.initial-delay:PT5M}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minus(horizon);
+        tx.executeWithoutResult(status -> store.raiseHorizon(cutoff));
+
+        long total = 0;
+        int moved;
+        int batches = 0;
+        do {
+            Integer n = tx.execute(status -> store.archiveBatch(cutoff, batchSize));
+            moved = n == null ? 0 : n;
+            total += moved;
+        } while (moved == batchSize && ++batches < maxBatches);
+        if (total > 0) {
+            log.info("Archived {} records due before {}", total, cutoff);
+        }
+    }
+}
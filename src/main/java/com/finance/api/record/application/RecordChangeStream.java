@@ -0,0 +1,241 @@
+package com.finance.api.record.application;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.finance.api.record.domain.RecordChange;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans committed record changes out to the user's open /records/stream connections.
+ * <p>
+ * Idle connections hold no thread: each is an async {@link SseEmitter} plus a bounded queue
+ * drained on a virtual thread only while it has events. A connection whose queue overflows is
+ * closed; the client reconnects with Last-Event-ID and is replayed from the user's recent
+ * history, or told to {@code reset} (refetch) when the gap is no longer covered.
+ * Event ids are {@code <epoch>-<seq>} and node-local, so a restart also leads to a reset.
+ */
+@Component
+public class RecordChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordChangeStream.class);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int historySize;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration historyRetention;
+
+    public RecordChangeStream(
+            @Value("${app.records.stream.history-size:256}") int historySize,
+            @Value("${app.records.stream.buffer-size:64}") int bufferSize,
+            @Value("${app.records.stream.timeout:PT30M}") Duration timeout,
+            @Value("${app.records.stream.history-retention:PT10M}") Duration historyRetention) {
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.historyRetention = historyRetention;
+    }
+
+    /** Opens a stream for {@code userId}, first replaying what was missed since {@code lastEventId}. */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        var connection = new Connection(new SseEmitter(timeout.toMillis()));
+        // compute() keeps registration atomic with the idle-channel eviction in heartbeat().
+        var channel = channels.compute(userId, (id, existing) -> {
+            var c = existing != null ? existing : new Channel(sequence.get());
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                var missed = c.since(lastEventId);
+                if (missed == null || missed.size() > bufferSize) {
+                    connection.offer(() -> SseEmitter.event().name("reset").data("refetch"));
+                } else {
+                    missed.forEach(connection::offer);
+                }
+            }
+            c.connections.add(connection);
+            return c;
+        });
+
+        Runnable remove = () -> {
+            connection.closed.set(true);
+            channel.connections.remove(connection);
+        };
+        connection.emitter.onCompletion(remove);
+        connection.emitter.onTimeout(remove);
+        connection.emitter.onError(ex -> remove.run());
+        return connection.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onChange(RecordChangedEvent event) {
+        channels.compute(event.userId(), (id, existing) -> {
+            var c = existing != null ? existing : new Channel(sequence.get());
+            var sent = new Sent(sequence.incrementAndGet(), event.change());
+            c.remember(sent);
+            for (var connection : c.connections) {
+                connection.offer(() -> toEvent(sent));
+            }
+            return c;
+        });
+    }
+
+    /** Keeps proxies from closing idle streams and forgets history of users nobody is watching. */
+    @Scheduled(fixedDelayString = "${app.records.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        Instant cutoff = Instant.now().minus(historyRetention);
+        channels.forEach((userId, channel) -> {
+            for (var connection : channel.connections) {
+                connection.offer(() -> SseEmitter.event().comment("heartbeat"));
+            }
+            channels.computeIfPresent(userId, (id, c) -> c.isIdleSince(cutoff) ? null : c);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(c -> c.connections.forEach(conn -> conn.emitter.complete()));
+        executor.shutdownNow();
+    }
+
+    private record Sent(long seq, RecordChange change) {
+    }
+
+    private final class Channel {
+
+        private final ArrayDeque<Sent> history = new ArrayDeque<>();
+        private final Set<Connection> connections = new CopyOnWriteArraySet<>();
+        /** Events up to this sequence may be missing from {@link #history}. */
+        private long floor;
+        private Instant lastActivity = Instant.now();
+
+        Channel(long floor) {
+            this.floor = floor;
+        }
+
+        void remember(Sent sent) {
+            history.addLast(sent);
+            if (history.size() > historySize) {
+                floor = history.removeFirst().seq();
+            }
+            lastActivity = Instant.now();
+        }
+
+        /** Events after {@code lastEventId}, or null when that point is no longer covered. */
+        List<Supplier<SseEventBuilder>> since(String lastEventId) {
+            int dash = lastEventId.lastIndexOf('-');
+            if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+                return null;
+            }
+            long last;
+            try {
+                last = Long.parseLong(lastEventId.substring(dash + 1));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+            if (last < floor) {
+                return null;
+            }
+            var out = new ArrayList<Supplier<SseEventBuilder>>();
+            for (var sent : history) {
+                if (sent.seq() > last) {
+                    out.add(() -> toEvent(sent));
+                }
+            }
+            return out;
+        }
+
+        boolean isIdleSince(Instant cutoff) {
+            return connections.isEmpty() && lastActivity.isBefore(cutoff);
+        }
+    }
+
+    private final class Connection {
+
+        private final SseEmitter emitter;
+        /** Builders are single-use, so each connection builds its own event when sending. */
+        private final BlockingQueue<Supplier<SseEventBuilder>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEventBuilder> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Slow reader: drop the connection rather than buffer without bound.
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                var event = queue.poll();
+                if (event == null) {
+                    draining.set(false);
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    emitter.send(event.get());
+                } catch (IOException | IllegalStateException ex) {
+                    log.debug("record stream connection dropped: {}", ex.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                emitter.complete();
+            }
+        }
+    }
+
+    private SseEventBuilder toEvent(Sent sent) {
+        return SseEmitter.event()
+                .id(epoch + "-" + sent.seq())
+                .name("change")
+                .data(sent.change(), MediaType.APPLICATION_JSON);
+    }
+}
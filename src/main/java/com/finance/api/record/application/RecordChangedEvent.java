@@ -0,0 +1,9 @@
+package com.finance.api.record.application;
+
+import java.util.UUID;
+
+import com.finance.api.common.event.UserDataChanged;
+import com.finance.api.record.domain.RecordChange;
+
+/** Published inside the writing transaction; listeners act on it after commit. */
+public record RecordChangedEvent(UUID userId, RecordChange change) implements UserDataChanged { }
@@ -0,0 +1,166 @@
+package com.finance.api.record.application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.common.util.CsvUtils;
+import com.finance.api.record.domain.BulkItemError;
+import com.finance.api.record.domain.BulkResult;
+import com.finance.api.record.domain.RecordChange;
+import com.finance.api.record.domain.RecordChangeType;
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.domain.RecordStatus;
+import com.finance.api.record.persistence.RecordCopyLoader;
+
+/**
+ * CSV import for large histories. Rows are validated as they are read and streamed into
+ * PostgreSQL with COPY, so memory use does not depend on file size.
+ * <p>
+ * Inserting records takes the user's change lock (V11), held until commit, so the user's own
+ * writes wait while an import finishes. Only the final INSERT from the staging table runs
+ * under it; reading and copying the file does not.
+ */
+@Service
+public class RecordImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordImportService.class);
+
+    private static final List<String> COLUMNS = List.of("kind", "status", "amount", "duedate", "categoryid", "description");
+    private static final List<String> REQUIRED = List.of("kind", "status", "amount", "duedate");
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("999999999999.99");
+
+    private final RecordCopyLoader loader;
+    private final ApplicationEventPublisher events;
+
+    public RecordImportService(RecordCopyLoader loader, ApplicationEventPublisher events) {
+        this.loader = loader;
+        this.events = events;
+    }
+
+    /**
+     * Imports a CSV with a header row naming the {@code RecordRequest} fields (any order).
+     * Invalid rows and rows referencing another user's category are skipped and reported by line number.
+     */
+    @Transactional
+    public BulkResult importCsv(UUID userId, InputStream body) {
+        var in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Map<String, Integer> header = readHeader(in);
+
+        long lineNo = 1;
+        List<BulkItemError> errors = new ArrayList<>();
+        var stage = loader.openStage();
+        try {
+            List<String> fields;
+            while ((fields = CsvUtils.readRecord(in)) != null) {
+                lineNo++;
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    stageRow(stage, lineNo, header, fields);
+                } catch (IllegalArgumentException | DateTimeException ex) {
+                    errors.add(new BulkItemError((int) lineNo, ex.getMessage()));
+                }
+            }
+        } catch (IOException ex) {
+            stage.cancel();
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            stage.cancel();
+            throw ex;
+        }
+
+        long staged = stage.finish();
+        for (long line : loader.stagedWithForeignCategory(userId)) {
+            errors.add(new BulkItemError((int) line, "categoryId: Category not found"));
+        }
+        int created = loader.insertFromStage(userId);
+        if (created > 0) {
+            events.publishEvent(new RecordChangedEvent(userId, RecordChange.ofCount(RecordChangeType.CREATED, created)));
+        }
+        errors.sort(Comparator.comparingInt(BulkItemError::index));
+        log.debug("importCsv userId={}, staged={}, created={}, failed={}", userId, staged, created, errors.size());
+        return new BulkResult(created, errors.size(), errors);
+    }
+
+    private static Map<String, Integer> readHeader(BufferedReader in) {
+        List<String> names;
+        try {
+            names = CsvUtils.readRecord(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (names == null) {
+            throw new BadRequestException("CSV is empty");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            if (COLUMNS.contains(name)) {
+                header.put(name, i);
+            }
+        }
+        for (String required : REQUIRED) {
+            if (!header.containsKey(required)) {
+                throw new BadRequestException("CSV header must include kind, status, amount and dueDate");
+            }
+        }
+        return header;
+    }
+
+    private static void stageRow(RecordCopyLoader.Stage stage, long lineNo, Map<String, Integer> header,
+            List<String> fields) {
+        RecordKind kind = RecordKind.valueOf(cell(fields, header, "kind").toUpperCase(Locale.ROOT));
+        RecordStatus status = RecordStatus.valueOf(cell(fields, header, "status").toUpperCase(Locale.ROOT));
+
+        BigDecimal amount = new BigDecimal(cell(fields, header, "amount"));
+        if (amount.compareTo(MAX_AMOUNT) > 0 || amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("amount: does not fit numeric(14,2)");
+        }
+
+        LocalDate dueDate = LocalDate.parse(cell(fields, header, "duedate"));
+
+        String category = cell(fields, header, "categoryid");
+        UUID categoryId = category.isEmpty() ? null : UUID.fromString(category);
+
+        String description = cell(fields, header, "description");
+        var in = new RecordRequest(kind, status, amount, dueDate, categoryId,
+                description.isEmpty() ? null : description);
+        String violation = RecordRequestValidator.violation(in);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation);
+        }
+
+        stage.add(lineNo, in.kind(), in.status(), in.amount(), in.dueDate(), in.categoryId(), in.description());
+    }
+
+    private static String cell(List<String> fields, Map<String, Integer> header, String column) {
+        Integer idx = header.get(column);
+        if (idx == null || idx >= fields.size()) {
+            return "";
+        }
+        return column.equals("description") ? fields.get(idx) : fields.get(idx).trim();
+    }
+}
@@ -0,0 +1,37 @@
+package com.finance.api.record.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.finance.api.record.persistence.RecordPartitions;
+
+/**
+ * Keeps monthly record partitions created ahead of the dates being written, so new rows do
+ * not pile up in the default partition. Runs at startup and then on a fixed delay; the
+ * database function serialises concurrent runs from several nodes.
+ */
+@Component
+public class RecordPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordPartitionMaintenance.class);
+
+    private final RecordPartitions partitions;
+    private final int monthsAhead;
+
+    public RecordPartitionMaintenance(RecordPartitions partitions,
+            @Value("${app.records.partitions.months-ahead:3}") int monthsAhead) {
+        this.partitions = partitions;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${app.records.partitions.interval:PT6H}")
+    public void ensurePartitions() {
+        int created = partitions.ensure(monthsAhead);
+        if (created > 0) {
+            log.info("Created {} record partition(s)", created);
+        }
+    }
+}
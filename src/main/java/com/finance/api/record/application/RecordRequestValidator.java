@@ -0,0 +1,42 @@
+package com.finance.api.record.application;
+
+import java.math.BigDecimal;
+
+import com.finance.api.record.domain.RecordRequest;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints on {@link RecordRequest}, for
+ * paths that check items one at a time and cannot afford the reflective validator per item.
+ * Kept in sync with the annotations on the record by RecordRequestValidatorTest.
+ */
+final class RecordRequestValidator {
+
+    private RecordRequestValidator() {
+    }
+
+    /** Returns the first violated constraint as {@code "field: message"}, or null when valid. */
+    static String violation(RecordRequest in) {
+        if (in == null) {
+            return "item: Record is required";
+        }
+        if (in.kind() == null) {
+            return "kind: Kind is required";
+        }
+        if (in.status() == null) {
+            return "status: Status is required";
+        }
+        if (in.amount() == null) {
+            return "amount: Amount is required";
+        }
+        if (in.amount().compareTo(BigDecimal.ZERO) < 0) {
+            return "amount: must be greater than or equal to 0.00";
+        }
+        if (in.dueDate() == null) {
+            return "dueDate: Due date is required";
+        }
+        if (in.description() != null && in.description().length() > 255) {
+            return "description: Description must be at most 255 characters";
+        }
+        return null;
+    }
+}
@@ -2,134 +2,291 @@ package com.finance.api.record.application;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.finance.api.common.api.CursorPage;
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.common.exception.ConflictException;
 import com.finance.api.common.exception.NotFoundException;
+import com.finance.api.common.exception.PreconditionFailedException;
+import com.finance.api.idempotency.application.IdempotencyService;
+import com.finance.api.record.domain.BulkItemError;
 import com.finance.api.record.domain.BulkResult;
+import com.finance.api.record.domain.RecordChange;
+import com.finance.api.record.domain.RecordChangeType;
+import com.finance.api.record.domain.RecordCursor;
+import com.finance.api.record.domain.RecordFilter;
 import com.finance.api.record.domain.RecordKind;
 import com.finance.api.record.domain.RecordRequest;
 import com.finance.api.record.domain.RecordResponse;
 import com.finance.api.record.domain.RecordStatus;
-import com.finance.api.record.persistence.BulkRequestEntity;
-import com.finance.api.record.persistence.BulkRequestRepository;
+import com.finance.api.record.persistence.RecordArchiveStore;
+import com.finance.api.record.persistence.RecordBatchWriter;
+import com.finance.api.record.persistence.RecordBulkOperations;
+import com.finance.api.record.persistence.RecordConditionalUpdates;
 import com.finance.api.record.persistence.RecordEntity;
+import com.finance.api.record.persistence.RecordQueries;
 import com.finance.api.record.persistence.RecordRepository;
 import com.finance.api.record.persistence.RecordSpecifications;
+import com.finance.api.recurrence.domain.Occurrence;
+import com.finance.api.recurrence.persistence.OccurrenceQueries;
 
 @Service
 public class RecordService {
 
-    private final RecordRepository repo;
-    private final BulkRequestRepository bulkRepo;
+    /** Idempotency scope shared by every bulk create path, so a key replays across sync and async calls. */
+    public static final String BULK_SCOPE = "record-bulk";
+    private static final String CREATE_SCOPE = "record-create";
+
+    private static final Sort KEYSET_ORDER = Sort.by("dueDate", "id");
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final int MAX_BULK_STATUS_ROWS = 10_000;
+    private static final int MAX_SEARCH_LENGTH = 100;
+    /** Occurrences are generated per request, so the window and the merged prefix stay bounded. */
+    private static final long MAX_OCCURRENCE_WINDOW_DAYS = 731;
+    private static final int MAX_MERGED_ROWS = 10_000;
 
-    public RecordService(RecordRepository repo, BulkRequestRepository bulkRepo) {
+    private final RecordRepository repo;
+    private final RecordQueries queries;
+    private final RecordBatchWriter batchWriter;
+    private final RecordBulkOperations bulkOps;
+    private final RecordConditionalUpdates conditional;
+    private final OccurrenceQueries occurrences;
+    private final RecordArchiveStore archive;
+    private final IdempotencyService idempotency;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+
+    public RecordService(RecordRepository repo, RecordQueries queries, RecordBatchWriter batchWriter,
+            RecordBulkOperations bulkOps, RecordConditionalUpdates conditional, OccurrenceQueries occurrences,
+            RecordArchiveStore archive, IdempotencyService idempotency, TransactionTemplate tx,
+            ApplicationEventPublisher events, @Value("${app.records.bulk.chunk-size:1000}") int chunkSize) {
         this.repo = repo;
-        this.bulkRepo = bulkRepo;
+        this.queries = queries;
+        this.batchWriter = batchWriter;
+        this.bulkOps = bulkOps;
+        this.conditional = conditional;
+        this.occurrences = occurrences;
+        this.archive = archive;
+        this.idempotency = idempotency;
+        this.tx = tx;
+        this.events = events;
+        this.chunkSize = chunkSize;
     }
 
-    @Transactional(readOnly = true)
-    public Page<RecordResponse> list(
-            UUID userId,
-            Optional<LocalDate> startDate,
-            Optional<LocalDate> endDate,
-            Optional<YearMonth> month,
-            Optional<RecordStatus> status,
-            Optional<RecordKind> kind,
-            Optional<UUID> categoryId,
-            Pageable pageable) {
-
-        Specification<RecordEntity> spec = Specification.where(RecordSpecifications.belongsTo(userId));
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Page<RecordResponse> list(UUID userId, RecordFilter filter, Pageable pageable) {
+        validate(filter);
+        return queries.page(RecordSpecifications.matching(userId, filter), pageable,
+                filter.hasText() ? filter.q() : null, reachesArchive(filter));
+    }
 
-        if (month.isPresent()) {
-            spec = spec.and(RecordSpecifications.monthEquals(month.get()));
-        } else if (startDate.isPresent() || endDate.isPresent()) {
-            LocalDate from = startDate.orElse(LocalDate.MIN);
-            LocalDate to = endDate.orElse(LocalDate.MAX);
-            spec = spec.and(RecordSpecifications.dueDateBetween(from, to));
+    /**
+     * {@link #list} plus the pending occurrences of the user's recurrence rules in the filter's
+     * window, generated on the fly rather than stored. The stored rows up to the end of the
+     * requested page are read once and merged with the occurrences in the page's sort order.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Page<RecordResponse> listWithOccurrences(UUID userId, RecordFilter filter, Pageable pageable) {
+        validate(filter);
+        LocalDate from = filter.month() != null ? filter.month().atDay(1) : filter.startDate();
+        LocalDate to = filter.month() != null ? filter.month().atEndOfMonth() : filter.endDate();
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BadRequestException("includeRecurring needs month or both startDate and endDate");
         }
-
-        if (status.isPresent()) {
-            spec = spec.and(RecordSpecifications.hasStatus(status.get()));
+        if (ChronoUnit.DAYS.between(from, to) > MAX_OCCURRENCE_WINDOW_DAYS) {
+            throw new BadRequestException("includeRecurring supports windows of at most "
+                    + MAX_OCCURRENCE_WINDOW_DAYS + " days");
         }
-        if (kind.isPresent()) {
-            spec = spec.and(RecordSpecifications.hasKind(kind.get()));
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_MERGED_ROWS) {
+            throw new BadRequestException("includeRecurring pages must end within the first " + MAX_MERGED_ROWS + " rows");
         }
-        if (categoryId.isPresent()) {
-            spec = spec.and(RecordSpecifications.hasCategory(categoryId.get()));
+
+        List<RecordResponse> generated = occurrences.find(userId, from, to).stream()
+                .map(Occurrence::toRecord)
+                .filter(r -> matches(filter, r))
+                .toList();
+        int end = (int) pageable.getOffset() + pageable.getPageSize();
+        Page<RecordResponse> stored = queries.page(RecordSpecifications.matching(userId, filter),
+                PageRequest.of(0, end, pageable.getSort()), filter.hasText() ? filter.q() : null,
+                reachesArchive(filter));
+
+        var order = comparator(pageable.getSort());
+        var merged = new ArrayList<RecordResponse>(stored.getNumberOfElements() + generated.size());
+        merged.addAll(stored.getContent());
+        merged.addAll(generated.stream().sorted(order).toList());
+        // Stable merge of two sorted runs: stored rows keep their database order among equals.
+        merged.sort(order);
+
+        int start = (int) Math.min(pageable.getOffset(), merged.size());
+        var content = merged.subList(start, Math.min(end, merged.size()));
+        return new PageImpl<>(new ArrayList<>(content), pageable, stored.getTotalElements() + generated.size());
+    }
+
+    /**
+     * Whether the filter can match archived records: only settled ones are archived, and only
+     * those due before the archive horizon. Otherwise listings skip the archive entirely.
+     * Callers read at REPEATABLE READ, so the horizon and the listing that follows come from
+     * one snapshot and a concurrent archiving run cannot move rows out from under the listing.
+     */
+    private boolean reachesArchive(RecordFilter filter) {
+        if (filter.status() == RecordStatus.PENDING) {
+            return false;
         }
+        LocalDate horizon = archive.horizon();
+        if (horizon == null) {
+            return false;
+        }
+        LocalDate from = filter.month() != null ? filter.month().atDay(1) : filter.startDate();
+        return from == null || from.isBefore(horizon);
+    }
 
-        Page<RecordEntity> page = repo.findAll(spec, pageable);
-        return page.map(RecordService::toResponse);
+    private static void validate(RecordFilter filter) {
+        if (filter.hasText() && filter.q().length() > MAX_SEARCH_LENGTH) {
+            throw new BadRequestException("q must be at most " + MAX_SEARCH_LENGTH + " characters");
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+            throw new BadRequestException("minAmount must not be greater than maxAmount");
+        }
     }
 
-    @Transactional(readOnly = true)
-    public RecordResponse get(UUID userId, UUID id) {
-        var e = repo.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new NotFoundException("Record not found"));
-        return toResponse(e);
+    /** In-memory counterpart of {@link RecordSpecifications#matching} for generated rows (dates already bounded). */
+    private static boolean matches(RecordFilter filter, RecordResponse r) {
+        return (filter.status() == null || filter.status() == r.status())
+                && (filter.kind() == null || filter.kind() == r.kind())
+                && (filter.categoryId() == null || filter.categoryId().equals(r.categoryId()))
+                && (filter.minAmount() == null || r.amount().compareTo(filter.minAmount()) >= 0)
+                && (filter.maxAmount() == null || r.amount().compareTo(filter.maxAmount()) <= 0)
+                && (!filter.hasText() || (r.description() != null
+                        && r.description().toLowerCase(Locale.ROOT).contains(filter.q().strip().toLowerCase(Locale.ROOT))));
     }
 
-    @Transactional
-    public RecordResponse create(UUID userId, RecordRequest in) {
-        var e = new RecordEntity();
-        e.setUserId(userId);
-        e.setCategoryId(in.categoryId());
-        e.setKind(in.kind());
+    /** Orders merged rows like the SQL listing; unsortable properties are ignored and nulls go last. */
+    private static Comparator<RecordResponse> comparator(Sort sort) {
+        Comparator<RecordResponse> order = (a, b) -> 0;
+        for (Sort.Order o : sort.isSorted() ? sort : Sort.by("dueDate")) {
+            Comparator<RecordResponse> c = switch (o.getProperty()) {
+                case "dueDate" -> Comparator.comparing(RecordResponse::dueDate, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "amount" -> Comparator.comparing(RecordResponse::amount, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "paidAt" -> Comparator.comparing(RecordResponse::paidAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "description" -> Comparator.comparing(RecordResponse::description, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "status" -> Comparator.comparing(r -> r.status().name());
+                case "kind" -> Comparator.comparing(r -> r.kind().name());
+                default -> null;
+            };
+            if (c != null) {
+                order = order.thenComparing(o.isDescending() ? c.reversed() : c);
+            }
+        }
+        return order;
+    }
 
-        RecordStatus status = in.status();
-        if (in.kind() == RecordKind.INCOME && status == RecordStatus.PAID) {
-            status = RecordStatus.RECEIVED;
+    /**
+     * Keyset variant of {@link #list}: seeks past the {@code after} cursor on
+     * {@code (due_date, id)} and reads one extra row instead of counting the filtered set.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CursorPage<RecordResponse> listAfter(UUID userId, RecordFilter filter, String after, int size) {
+        Specification<RecordEntity> spec = RecordSpecifications.matching(userId, filter);
+        if (after != null && !after.isBlank()) {
+            var cursor = RecordCursor.decode(after);
+            spec = spec.and(RecordSpecifications.after(cursor.dueDate(), cursor.id()));
         }
-        e.setStatus(status);
 
-        e.setAmount(in.amount());
-        e.setDueDate(in.dueDate());
-        e.setDescription(in.description());
+        int limit = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        List<RecordResponse> rows = queries.list(spec, KEYSET_ORDER, limit + 1, reachesArchive(filter));
 
-        if (status == RecordStatus.PAID || status == RecordStatus.RECEIVED) {
-            e.setPaidAt(Instant.now());
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            var last = rows.get(limit - 1);
+            next = new RecordCursor(last.dueDate(), last.id()).encode();
         }
+        return new CursorPage<>(rows, limit, next);
+    }
 
-        return toResponse(repo.save(e));
+    /**
+     * Pushes every matching record, archived ones included, to {@code sink} as it is read;
+     * nothing is buffered beyond the fetch size.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long export(UUID userId, RecordFilter filter, Consumer<RecordResponse> sink) {
+        long count = 0;
+        try (var rows = queries.stream(RecordSpecifications.matching(userId, filter), reachesArchive(filter))) {
+            for (var it = rows.iterator(); it.hasNext(); count++) {
+                sink.accept(it.next());
+            }
+        }
+        return count;
     }
 
-    @Transactional
-    public RecordResponse update(UUID userId, UUID id, RecordRequest in) {
-        var e = repo.findByIdAndUserId(id, userId)
+    /** Live records are looked up first; the archive is only read for an id not found there. */
+    @Transactional(readOnly = true)
+    public RecordResponse get(UUID userId, UUID id) {
+        return repo.findByIdAndUserId(id, userId).map(RecordService::toResponse)
+                .or(() -> archive.horizon() != null ? queries.find(userId, id, true) : Optional.empty())
                 .orElseThrow(() -> new NotFoundException("Record not found"));
+    }
 
-        e.setKind(in.kind());
+    /** Not transactional: the key is reserved first and the insert runs in its own transaction. */
+    public RecordResponse create(UUID userId, RecordRequest in, String requestId) {
+        return idempotency.execute(userId, CREATE_SCOPE, requestId, RecordResponse.class,
+                () -> changed(userId, RecordChangeType.CREATED, toResponse(repo.save(newRecord(userId, in)))));
+    }
+
+    /**
+     * Stores an occurrence of a recurrence rule as a real record, e.g. when it is confirmed or
+     * edited. Claiming the occurrence first turns a second attempt into a 409.
+     */
+    @Transactional
+    public RecordResponse createOccurrence(UUID userId, UUID ruleId, LocalDate occurrenceDate, RecordRequest in) {
+        if (!occurrences.resolve(ruleId, occurrenceDate)) {
+            throw new ConflictException("Occurrence was already recorded");
+        }
+        var e = newRecord(userId, in);
+        e.setRecurrenceRuleId(ruleId);
+        e.setOccurrenceDate(occurrenceDate);
+        return changed(userId, RecordChangeType.CREATED, toResponse(repo.save(e)));
+    }
 
+    /**
+     * Replaces the record in one conditional UPDATE. With {@code expectedVersion} (from If-Match)
+     * a concurrent change since that version fails with 412 instead of being overwritten.
+     */
+    @Transactional
+    public RecordResponse update(UUID userId, UUID id, RecordRequest in, Long expectedVersion) {
         RecordStatus status = in.status();
         if (in.kind() == RecordKind.INCOME && status == RecordStatus.PAID) {
             status = RecordStatus.RECEIVED;
         }
-        e.setStatus(status);
-
-        e.setAmount(in.amount());
-        e.setDueDate(in.dueDate());
-        e.setCategoryId(in.categoryId());
-        e.setDescription(in.description());
-
-        if (status == RecordStatus.PAID || status == RecordStatus.RECEIVED) {
-            if (e.getPaidAt() == null) {
-                e.setPaidAt(Instant.now());
-            }
-        } else {
-            e.setPaidAt(null);
-        }
-
-        return toResponse(repo.save(e));
+        var out = conditional.replace(userId, id, expectedVersion, in.kind(), status,
+                in.amount(), in.dueDate(), in.categoryId(), in.description())
+                .orElseThrow(() -> missingOrStale(userId, id, expectedVersion));
+        return changed(userId, RecordChangeType.UPDATED, out);
     }
 
     @Transactional
@@ -137,46 +294,56 @@ public class RecordService {
         if (ids == null || ids.isEmpty()) {
             return 0;
         }
-        return repo.deleteByUserIdAndIdIn(userId, ids);
+        List<UUID> deleted = bulkOps.deleteByIds(userId, ids);
+        if (deleted.size() < ids.size()) {
+            var gone = new HashSet<>(deleted);
+            rejectArchived(userId, ids.stream().filter(id -> !gone.contains(id)).toList());
+        }
+        if (!deleted.isEmpty()) {
+            events.publishEvent(new RecordChangedEvent(userId, RecordChange.ofIds(RecordChangeType.DELETED, deleted)));
+        }
+        return deleted.size();
     }
 
+    /** Deletes every record matching {@code filter} in one statement. An empty filter is rejected. */
     @Transactional
-    public BulkResult bulkCreate(UUID userId, List<RecordRequest> items, String requestId) {
-        if (requestId != null && !requestId.isBlank()) {
-            var existing = bulkRepo.findByUserIdAndRequestId(userId, requestId).orElse(null);
-            if (existing != null) {
-                return new BulkResult(existing.getCreatedCount(), existing.getFailedCount());
-            }
+    public long deleteMatching(UUID userId, RecordFilter filter) {
+        if (filter.isEmpty()) {
+            throw new BadRequestException("Provide record ids or at least one filter");
         }
+        int deleted = bulkOps.deleteMatching(RecordSpecifications.matching(userId, filter));
+        changed(userId, RecordChangeType.DELETED, deleted);
+        return deleted;
+    }
 
+    /** Moves every record matching {@code filter} to {@code categoryId} (null clears it) in one statement. */
+    @Transactional
+    public long setCategoryMatching(UUID userId, RecordFilter filter, UUID categoryId) {
+        if (filter.isEmpty()) {
+            throw new BadRequestException("Provide at least one filter");
+        }
+        if (categoryId != null && !bulkOps.categoryBelongsTo(categoryId, userId)) {
+            throw new NotFoundException("Category not found");
+        }
+        int updated = bulkOps.setCategory(RecordSpecifications.matching(userId, filter), categoryId);
+        changed(userId, RecordChangeType.UPDATED, updated);
+        return updated;
+    }
+
+    /** Not transactional, like {@link #create}. */
+    public BulkResult bulkCreate(UUID userId, List<RecordRequest> items, String requestId) {
+        return idempotency.execute(userId, BULK_SCOPE, requestId, BulkResult.class,
+                () -> insertValid(userId, items));
+    }
+
+    private BulkResult insertValid(UUID userId, List<RecordRequest> items) {
         int created = 0, failed = 0;
-        var batch = new ArrayList<RecordEntity>();
+        var batch = new ArrayList<RecordEntity>(items == null ? 0 : items.size());
 
         if (items != null) {
             for (var in : items) {
                 try {
-                    var e = new RecordEntity();
-                    e.setUserId(userId);
-                    e.setCategoryId(in.categoryId());
-                    e.setKind(in.kind());
-
-                    RecordStatus status = in.status();
-                    if (in.kind() == RecordKind.INCOME && status == RecordStatus.PAID) {
-                        status = RecordStatus.RECEIVED;
-                    }
-                    e.setStatus(status);
-
-                    e.setAmount(in.amount());
-                    e.setDueDate(in.dueDate());
-                    e.setDescription(in.description());
-
-                    if (status == RecordStatus.PAID || status == RecordStatus.RECEIVED) {
-                        e.setPaidAt(Instant.now());
-                    } else {
-                        e.setPaidAt(null);
-                    }
-
-                    batch.add(e);
+                    batch.add(newRecord(userId, in));
                     created++;
                 } catch (Exception ex) {
                     failed++;
@@ -184,60 +351,180 @@ public class RecordService {
             }
         }
 
-        if (!batch.isEmpty()) {
-            repo.saveAll(batch);
+        batchWriter.insertAll(batch);
+        changed(userId, RecordChangeType.CREATED, created);
+        return new BulkResult(created, failed);
+    }
+
+    /**
+     * Bulk create that commits every {@code app.records.bulk.chunk-size} items and reports
+     * failures per item: invalid items and rows the database rejects are skipped without
+     * rolling back their chunk. Chunks committed before an unexpected error stay committed.
+     * The result is stored with the last chunk, so a retry replays it only once every chunk
+     * has committed.
+     */
+    public BulkResult bulkCreateChunked(UUID userId, List<RecordRequest> items, String requestId) {
+        return idempotency.executeSelfCompleting(userId, BULK_SCOPE, requestId, BulkResult.class,
+                () -> createChunked(userId, items, requestId));
+    }
+
+    private BulkResult createChunked(UUID userId, List<RecordRequest> items, String requestId) {
+        List<BulkItemError> errors = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int start = from;
+            int end = Math.min(from + chunkSize, items.size());
+            var chunk = items.subList(start, end);
+            if (end < items.size()) {
+                errors.addAll(tx.execute(status -> createAllIsolating(userId, chunk, start)));
+                from = end;
+                continue;
+            }
+            return tx.execute(status -> {
+                errors.addAll(createAllIsolating(userId, chunk, start));
+                var result = new BulkResult(items.size() - errors.size(), errors.size(), errors);
+                idempotency.complete(userId, BULK_SCOPE, requestId, result);
+                return result;
+            });
         }
+    }
 
-        if (requestId != null && !requestId.isBlank()) {
-            var br = new BulkRequestEntity();
-            br.setUserId(userId);
-            br.setRequestId(requestId);
-            br.setCreatedCount(created);
-            br.setFailedCount(failed);
-            br.setProcessedAt(Instant.now());
-            bulkRepo.save(br);
+    /**
+     * Validates and inserts {@code items} in the caller's transaction, isolating rows the
+     * database rejects instead of failing them all. Error indexes are offset by {@code baseIndex}.
+     */
+    @Transactional
+    public List<BulkItemError> createAllIsolating(UUID userId, List<RecordRequest> items, int baseIndex) {
+        List<BulkItemError> errors = new ArrayList<>();
+        List<RecordEntity> rows = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String violation = RecordRequestValidator.violation(items.get(i));
+            if (violation != null) {
+                errors.add(new BulkItemError(baseIndex + i, violation));
+            } else {
+                rows.add(newRecord(userId, items.get(i)));
+                positions.add(baseIndex + i);
+            }
         }
+        var rejected = batchWriter.insertAllIsolating(rows);
+        rejected.forEach((pos, message) -> errors.add(new BulkItemError(positions.get(pos), message)));
+        changed(userId, RecordChangeType.CREATED, rows.size() - rejected.size());
+        errors.sort(Comparator.comparingInt(BulkItemError::index));
+        return errors;
+    }
 
-        return new BulkResult(created, failed);
+    @Transactional
+    public RecordResponse confirm(UUID userId, UUID id, Long expectedVersion) {
+        var out = conditional.confirm(userId, id, expectedVersion)
+                .orElseThrow(() -> missingOrStale(userId, id, expectedVersion));
+        return changed(userId, RecordChangeType.STATUS_CHANGED, out);
     }
 
     @Transactional
-    public RecordResponse confirm(UUID userId, UUID id) {
-        var e = repo.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new NotFoundException("Record not found"));
-        switch (e.getKind()) {
-            case EXPENSE -> e.setStatus(RecordStatus.PAID);
-            case INCOME -> e.setStatus(RecordStatus.RECEIVED);
+    public RecordResponse updateStatus(UUID userId, UUID id, RecordStatus newStatus, Long expectedVersion) {
+        var out = conditional.updateStatus(userId, id, expectedVersion, newStatus)
+                .orElseThrow(() -> missingOrStale(userId, id, expectedVersion));
+        return changed(userId, RecordChangeType.STATUS_CHANGED, out);
+    }
+
+    /** Only reached when the conditional UPDATE matched nothing, so the happy path stays one statement. */
+    private RuntimeException missingOrStale(UUID userId, UUID id, Long expectedVersion) {
+        if (expectedVersion != null && conditional.exists(userId, id)) {
+            return new PreconditionFailedException("Record was modified by another request");
+        }
+        if (!archive.archivedAmong(userId, List.of(id)).isEmpty()) {
+            return archivedReadOnly();
+        }
+        return new NotFoundException("Record not found");
+    }
+
+    /**
+     * Archived records stay readable through {@link #get} but are never written; an id-based write
+     * that reaches one fails as a whole, rolling back whatever it already changed. Filter-based
+     * writes only ever match live records.
+     */
+    private void rejectArchived(UUID userId, List<UUID> missed) {
+        if (!missed.isEmpty() && !archive.archivedAmong(userId, missed).isEmpty()) {
+            throw archivedReadOnly();
         }
-        e.setPaidAt(Instant.now());
-        return toResponse(repo.save(e));
     }
 
+    private static ConflictException archivedReadOnly() {
+        return new ConflictException("Archived records are read-only");
+    }
+
+    /**
+     * Moves many records to {@code newStatus} in one {@code UPDATE ... RETURNING}, applying the
+     * same INCOME/PAID and paidAt rules as {@link #updateStatus}. With no ids, the records
+     * matching {@code filter} are targeted instead.
+     */
     @Transactional
-    public RecordResponse updateStatus(UUID userId, UUID id, RecordStatus newStatus) {
-        var e = repo.findByIdAndUserId(id, userId)
-                .orElseThrow(() -> new NotFoundException("Record not found"));
+    public List<RecordResponse> updateStatusMany(UUID userId, List<UUID> ids, RecordFilter filter,
+            RecordStatus newStatus) {
+        List<UUID> targets = ids;
+        if (targets == null || targets.isEmpty()) {
+            if (filter.isEmpty()) {
+                throw new BadRequestException("Provide record ids or at least one filter");
+            }
+            targets = queries.ids(RecordSpecifications.matching(userId, filter), MAX_BULK_STATUS_ROWS + 1);
+        }
+        if (targets.size() > MAX_BULK_STATUS_ROWS) {
+            throw new BadRequestException("At most " + MAX_BULK_STATUS_ROWS + " records can be updated at once");
+        }
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        var updated = bulkOps.updateStatus(userId, targets, newStatus);
+        if (updated.size() < targets.size()) {
+            var touched = updated.stream().map(RecordResponse::id).collect(Collectors.toSet());
+            rejectArchived(userId, targets.stream().filter(id -> !touched.contains(id)).toList());
+        }
+        if (!updated.isEmpty()) {
+            events.publishEvent(new RecordChangedEvent(userId, RecordChange.ofIds(RecordChangeType.STATUS_CHANGED,
+                    updated.stream().map(RecordResponse::id).toList())));
+        }
+        return updated;
+    }
 
-        if (e.getKind() == RecordKind.INCOME && newStatus == RecordStatus.PAID) {
-            newStatus = RecordStatus.RECEIVED;
+    /** Publishes a change for {@link RecordChangeStream}; delivered only if the transaction commits. */
+    private RecordResponse changed(UUID userId, RecordChangeType type, RecordResponse record) {
+        events.publishEvent(new RecordChangedEvent(userId, RecordChange.of(type, record)));
+        return record;
+    }
+
+    void changed(UUID userId, RecordChangeType type, long count) {
+        if (count > 0) {
+            events.publishEvent(new RecordChangedEvent(userId, RecordChange.ofCount(type, count)));
         }
+    }
 
-        e.setStatus(newStatus);
+    private static RecordEntity newRecord(UUID userId, RecordRequest in) {
+        var e = new RecordEntity();
+        e.setUserId(userId);
+        e.setCategoryId(in.categoryId());
+        e.setKind(in.kind());
 
-        if (newStatus == RecordStatus.PAID || newStatus == RecordStatus.RECEIVED) {
-            if (e.getPaidAt() == null) {
-                e.setPaidAt(Instant.now());
-            }
-        } else {
-            e.setPaidAt(null);
+        RecordStatus status = in.status();
+        if (in.kind() == RecordKind.INCOME && status == RecordStatus.PAID) {
+            status = RecordStatus.RECEIVED;
         }
+        e.setStatus(status);
 
-        return toResponse(repo.save(e));
+        e.setAmount(in.amount());
+        e.setDueDate(in.dueDate());
+        e.setDescription(in.description());
+
+        if (status == RecordStatus.PAID || status == RecordStatus.RECEIVED) {
+            e.setPaidAt(Instant.now());
+        }
+        return e;
     }
 
     private static RecordResponse toResponse(RecordEntity e) {
         return new RecordResponse(
                 e.getId(), e.getCategoryId(), e.getKind(), e.getStatus(),
-                e.getAmount(), e.getDueDate(), e.getPaidAt(), e.getDescription());
+                e.getAmount(), e.getDueDate(), e.getPaidAt(), e.getDescription(),
+                e.getRecurrenceRuleId(), e.getVersion());
     }
 }
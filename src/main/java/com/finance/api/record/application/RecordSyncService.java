@@ -0,0 +1,89 @@
+package com.finance.api.record.application;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.record.domain.RecordChanges;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.record.persistence.RecordArchiveStore;
+import com.finance.api.record.persistence.RecordSyncQueries;
+
+/**
+ * Delta sync for offline clients. Positions are the change sequence stamped by the V11
+ * triggers, so a page costs what changed since the client's position, not the ledger size.
+ */
+@Service
+public class RecordSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordSyncService.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final RecordSyncQueries queries;
+    private final RecordArchiveStore archive;
+    private final Duration tombstoneRetention;
+    private final int purgeBatchSize;
+
+    public RecordSyncService(RecordSyncQueries queries, RecordArchiveStore archive,
+            @Value("${app.records.sync.tombstone-retention:P30D}") Duration tombstoneRetention,
+            @Value("${app.records.sync.purge-batch-size:1000}") int purgeBatchSize) {
+        this.queries = queries;
+        this.archive = archive;
+        this.tombstoneRetention = tombstoneRetention;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Transactional
+    public RecordChanges changesSince(UUID userId, long since, int size) {
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        // Archived records leave the change feed, so a client starting from scratch refetches the listing instead.
+        if (since < queries.purgedThrough() || (since == 0 && archive.horizon() != null)) {
+            return new RecordChanges(List.of(), List.of(), queries.currentSeq(userId), false, true);
+        }
+
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        var rows = queries.changesSince(userId, since, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<RecordResponse> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        long cursor = since;
+        for (var row : rows) {
+            if (row.record() == null) {
+                deleted.add(row.id());
+            } else {
+                changed.add(row.record());
+            }
+            cursor = row.seq();
+        }
+        return new RecordChanges(changed, deleted, cursor, hasMore, false);
+    }
+
+    /** Drops tombstones past retention in batches; clients behind them get a reset. */
+    @Scheduled(fixedDelayString = "${app.records.sync.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        long total = 0;
+        int purged;
+        do {
+            purged = queries.purgeTombstones(tombstoneRetention, purgeBatchSize);
+            total += purged;
+        } while (purged == purgeBatchSize);
+        if (total > 0) {
+            log.debug("Purged {} record tombstones", total);
+        }
+    }
+}
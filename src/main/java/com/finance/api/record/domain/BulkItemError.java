@@ -0,0 +1,4 @@
+package com.finance.api.record.domain;
+
+/** Why one item of a bulk request was rejected; {@code index} is its position in the request (CSV imports: line number). */
+public record BulkItemError(int index, String message) { }
@@ -0,0 +1,15 @@
+package com.finance.api.record.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record BulkJobResponse(
+    UUID id,
+    BulkJobStatus status,
+    int total,
+    int processed,
+    int created,
+    int failed,
+    Instant createdAt,
+    Instant finishedAt
+) { }
@@ -0,0 +1,3 @@
+package com.finance.api.record.domain;
+
+public enum BulkJobStatus { PENDING, RUNNING, COMPLETED, FAILED }
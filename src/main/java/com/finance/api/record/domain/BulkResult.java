@@ -1,3 +1,10 @@
 package com.finance.api.record.domain;
 
-public record BulkResult(int created, int failed) { }
+import java.util.List;
+
+public record BulkResult(int created, int failed, List<BulkItemError> errors) {
+
+  public BulkResult(int created, int failed) {
+    this(created, failed, List.of());
+  }
+}
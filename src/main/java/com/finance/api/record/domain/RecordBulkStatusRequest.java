@@ -0,0 +1,9 @@
+package com.finance.api.record.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+
+/** Target status for many records: the listed ids, or every record matching the query filters when empty. */
+public record RecordBulkStatusRequest(List<UUID> ids, @NotNull RecordStatus status) {}
@@ -0,0 +1,6 @@
+package com.finance.api.record.domain;
+
+import java.util.UUID;
+
+/** New category for every record matching the query filters; null clears it. */
+public record RecordCategoryUpdateRequest(UUID categoryId) {}
@@ -0,0 +1,24 @@
+package com.finance.api.record.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One committed change to a user's records, as pushed on /records/stream.
+ * {@code record} is set for single-record changes; set-based changes carry the affected
+ * {@code ids} when known, otherwise only {@code count}, and clients should refetch.
+ */
+public record RecordChange(RecordChangeType type, List<UUID> ids, RecordResponse record, long count) {
+
+  public static RecordChange of(RecordChangeType type, RecordResponse record) {
+    return new RecordChange(type, List.of(record.id()), record, 1);
+  }
+
+  public static RecordChange ofIds(RecordChangeType type, List<UUID> ids) {
+    return new RecordChange(type, List.copyOf(ids), null, ids.size());
+  }
+
+  public static RecordChange ofCount(RecordChangeType type, long count) {
+    return new RecordChange(type, List.of(), null, count);
+  }
+}
@@ -0,0 +1,3 @@
+package com.finance.api.record.domain;
+
+public enum RecordChangeType { CREATED, UPDATED, STATUS_CHANGED, DELETED }
@@ -0,0 +1,19 @@
+package com.finance.api.record.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a delta sync: records created or updated and ids deleted after the requested
+ * position. Pass {@code cursor} as {@code since} on the next call while {@code hasMore} is true.
+ * {@code reset} means the position is older than the retained tombstones, or is 0 once records
+ * are archived (archived rows are not in the feed): refetch everything, then continue from
+ * {@code cursor}.
+ */
+public record RecordChanges(
+    List<RecordResponse> changed,
+    List<UUID> deleted,
+    long cursor,
+    boolean hasMore,
+    boolean reset
+) { }
@@ -0,0 +1,27 @@
+package com.finance.api.record.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.finance.api.common.exception.BadRequestException;
+
+/** Keyset position {@code (dueDate, id)} exchanged with clients as an opaque token. */
+public record RecordCursor(LocalDate dueDate, UUID id) {
+
+  public String encode() {
+    String raw = dueDate + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static RecordCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int sep = raw.indexOf('|');
+      return new RecordCursor(LocalDate.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+    } catch (RuntimeException ex) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+}
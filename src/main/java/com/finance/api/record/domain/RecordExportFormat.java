@@ -0,0 +1,16 @@
+package com.finance.api.record.domain;
+
+public enum RecordExportFormat {
+  NDJSON("application/x-ndjson"),
+  CSV("text/csv");
+
+  private final String contentType;
+
+  RecordExportFormat(String contentType) {
+    this.contentType = contentType;
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+}
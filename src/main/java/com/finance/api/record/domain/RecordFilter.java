@@ -0,0 +1,38 @@
+package com.finance.api.record.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Optional filters shared by the record listing endpoints.
+ * Null fields are ignored; {@code month} takes precedence over the date range.
+ * {@code q} searches the description by words and by substring.
+ */
+public record RecordFilter(
+    YearMonth month,
+    LocalDate startDate,
+    LocalDate endDate,
+    RecordStatus status,
+    RecordKind kind,
+    UUID categoryId,
+    String q,
+    BigDecimal minAmount,
+    BigDecimal maxAmount
+) {
+  public RecordFilter(YearMonth month, LocalDate startDate, LocalDate endDate,
+      RecordStatus status, RecordKind kind, UUID categoryId) {
+    this(month, startDate, endDate, status, kind, categoryId, null, null, null);
+  }
+
+  public boolean hasText() {
+    return q != null && !q.isBlank();
+  }
+
+  public boolean isEmpty() {
+    return month == null && startDate == null && endDate == null
+        && status == null && kind == null && categoryId == null
+        && !hasText() && minAmount == null && maxAmount == null;
+  }
+}
@@ -13,5 +13,7 @@ public record RecordResponse(
     BigDecimal amount,
     LocalDate dueDate,
     Instant paidAt,
-    String description
+    String description,
+    UUID recurrenceId,
+    long version
 ) { }
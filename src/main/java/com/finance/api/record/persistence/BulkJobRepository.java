@@ -0,0 +1,39 @@
+package com.finance.api.record.persistence;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BulkJobRepository extends JpaRepository<BulkJobEntity, UUID> {
+
+  Optional<BulkJobEntity> findByIdAndUserId(UUID id, UUID userId);
+
+  Optional<BulkJobEntity> findByUserIdAndRequestId(UUID userId, String requestId);
+
+  /** Oldest job that is waiting or whose worker's lease ran out; other nodes skip the locked row. */
+  @Query(value = """
+      select * from bulk_job
+      where status in ('PENDING', 'RUNNING')
+        and (lease_until is null or lease_until < now())
+      order by created_at
+      limit 1
+      for update skip locked
+      """, nativeQuery = true)
+  Optional<BulkJobEntity> lockNextRunnable();
+
+  @Modifying
+  @Query(value = "insert into bulk_job_payload (job_id, items) values (:jobId, cast(:items as jsonb))",
+      nativeQuery = true)
+  void savePayload(@Param("jobId") UUID jobId, @Param("items") String items);
+
+  @Query(value = "select cast(items as text) from bulk_job_payload where job_id = :jobId", nativeQuery = true)
+  Optional<String> findPayload(@Param("jobId") UUID jobId);
+
+  @Modifying
+  @Query(value = "delete from bulk_job_payload where job_id = :jobId", nativeQuery = true)
+  void deletePayload(@Param("jobId") UUID jobId);
+}
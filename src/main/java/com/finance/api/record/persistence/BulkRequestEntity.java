@@ -1,84 +0,0 @@
-package com.finance.api.record.persistence;
-
-import java.time.Instant;
-import java.util.UUID;
-
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
-import jakarta.persistence.UniqueConstraint;
-
-@Entity
-@Table(name = "bulk_request",
-        uniqueConstraints = @UniqueConstraint(name = "uk_bulk_user_request", columnNames = {"user_id", "request_id"}))
-public class BulkRequestEntity {
-
-    @Id
-    @GeneratedValue
-    private UUID id;
-
-    @Column(name = "user_id", nullable = false)
-    private UUID userId;
-
-    @Column(name = "request_id", nullable = false, length = 64)
-    private String requestId;
-
-    @Column(nullable = false)
-    private int createdCount;
-
-    @Column(nullable = false)
-    private int failedCount;
-
-    @Column(nullable = false)
-    private Instant processedAt = Instant.now();
-
-    public UUID getId() {
-        return id;
-    }
-
-    public void setId(UUID id) {
-        this.id = id;
-    }
-
-    public UUID getUserId() {
-        return userId;
-    }
-
-    public void setUserId(UUID userId) {
-        this.userId = userId;
-    }
-
-    public String getRequestId() {
-        return requestId;
-    }
-
-    public void setRequestId(String requestId) {
-        this.requestId = requestId;
-    }
-
-    public int getCreatedCount() {
-        return createdCount;
-    }
-
-    public void setCreatedCount(int createdCount) {
-        this.createdCount = createdCount;
-    }
-
-    public int getFailedCount() {
-        return failedCount;
-    }
-
-    public void setFailedCount(int failedCount) {
-        this.failedCount = failedCount;
-    }
-
-    public Instant getProcessedAt() {
-        return processedAt;
-    }
-
-    public void setProcessedAt(Instant processedAt) {
-        this.processedAt = processedAt;
-    }
-}
@@ -0,0 +1,102 @@
+package com.finance.api.record.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Read-only view over live and archived records (V16), with the attribute names of
+ * {@link RecordEntity} so the same specifications apply. Only queried through {@link RecordQueries}.
+ */
+@Entity
+@Immutable
+@Table(name = "record_all")
+public class RecordAllEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "category_id")
+    private UUID categoryId;
+
+    @Enumerated(EnumType.STRING)
+    private RecordKind kind;
+
+    @Enumerated(EnumType.STRING)
+    private RecordStatus status;
+
+    private BigDecimal amount;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "paid_at")
+    private Instant paidAt;
+
+    private String description;
+
+    @Column(name = "recurrence_rule_id")
+    private UUID recurrenceRuleId;
+
+    private long version;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getCategoryId() {
+        return categoryId;
+    }
+
+    public RecordKind getKind() {
+        return kind;
+    }
+
+    public RecordStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Instant getPaidAt() {
+        return paidAt;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public UUID getRecurrenceRuleId() {
+        return recurrenceRuleId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,74 @@
+package com.finance.api.record.persistence;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Moves settled records into {@code record_archive} (V16) and tracks how far that reaches. */
+@Repository
+public class RecordArchiveStore {
+
+  private static final String MOVE_SQL =
+      """
+      with batch as (
+        select r.id, r.due_date
+        from record r
+        where r.due_date < ?
+          and r.status in ('PAID', 'RECEIVED', 'CANCELED')
+        limit ?
+        for update skip locked
+      ), moved as (
+        delete from record r
+        using batch b
+        where r.id = b.id and r.due_date = b.due_date
+        returning r.id, r.user_id, r.category_id, r.kind, r.status, r.amount, r.due_date, r.paid_at,
+                  r.description, r.version, r.recurrence_rule_id, r.occurrence_date
+      )
+      insert into record_archive (id, user_id, category_id, kind, status, amount, due_date, paid_at,
+                                  description, version, recurrence_rule_id, occurrence_date)
+      select * from moved
+      """;
+
+  private final JdbcTemplate jdbc;
+
+  public RecordArchiveStore(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Records due before this date may be archived; null while nothing is. */
+  public LocalDate horizon() {
+    return jdbc.queryForObject("select archived_before from record_archive_horizon", LocalDate.class);
+  }
+
+  /** The user's archived records among {@code ids}; archived rows are read-only. */
+  public List<UUID> archivedAmong(UUID userId, List<UUID> ids) {
+    return jdbc.query(con -> {
+      var ps = con.prepareStatement("select a.id from record_archive a where a.user_id = ? and a.id = any(?)");
+      ps.setObject(1, userId);
+      ps.setArray(2, con.createArrayOf("uuid", ids.toArray()));
+      return ps;
+    }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+  }
+
+  /** Must commit before rows below {@code cutoff} move, so readers include the archive first. */
+  public void raiseHorizon(LocalDate cutoff) {
+    jdbc.update("update record_archive_horizon set archived_before = greatest(archived_before, ?)",
+        Date.valueOf(cutoff));
+  }
+
+  /**
+   * Moves up to {@code limit} settled records due before {@code cutoff}, skipping rows other
+   * transactions hold, and returns how many moved. Must run in a transaction: the move is
+   * flagged as maintenance, so the delete leaves no sync tombstone.
+   */
+  public int archiveBatch(LocalDate cutoff, int limit) {
+    jdbc.queryForObject("select set_config('app.record_maintenance', 'on', true)", String.class);
+    int moved = jdbc.update(MOVE_SQL, Date.valueOf(cutoff), limit);
+    jdbc.queryForObject("select set_config('app.record_maintenance', 'off', true)", String.class);
+    return moved;
+  }
+}
@@ -0,0 +1,130 @@
+package com.finance.api.record.persistence;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk insert path for records that bypasses the persistence context: rows are sent as JDBC
+ * batches of {@code app.records.bulk.batch-size}, which pgjdbc rewrites into multi-row INSERTs
+ * when {@code reWriteBatchedInserts} is on. The entities are used as plain holders and never
+ * become managed.
+ */
+@Repository
+public class RecordBatchWriter {
+
+  private static final String INSERT_SQL =
+      """
+      insert into record (id, user_id, category_id, kind, status, amount, due_date,
+                          paid_at, description, created_at, updated_at)
+      values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final int batchSize;
+
+  public RecordBatchWriter(JdbcTemplate jdbc, @Value("${app.records.bulk.batch-size:500}") int batchSize) {
+    this.jdbc = jdbc;
+    this.batchSize = batchSize;
+  }
+
+  /** Inserts all rows, assigning ids to those that have none. Must run inside a transaction. */
+  public int insertAll(List<RecordEntity> rows) {
+    if (rows.isEmpty()) {
+      return 0;
+    }
+    for (var e : rows) {
+      if (e.getId() == null) {
+        e.setId(UUID.randomUUID());
+      }
+    }
+    lockChanges(rows);
+    batchInsert(rows);
+    return rows.size();
+  }
+
+  /**
+   * Like {@link #insertAll}, but a rejected batch does not abort the transaction: it is rolled
+   * back to a savepoint and split in halves until the offending rows are isolated. Returns the
+   * rejected rows keyed by their position in {@code rows}; everything else is inserted.
+   */
+  public Map<Integer, String> insertAllIsolating(List<RecordEntity> rows) {
+    for (var e : rows) {
+      if (e.getId() == null) {
+        e.setId(UUID.randomUUID());
+      }
+    }
+    lockChanges(rows);
+    Map<Integer, String> rejected = new TreeMap<>();
+    insertIsolating(rows, 0, rejected);
+    return rejected;
+  }
+
+  /**
+   * Takes the change lock of every user in {@code rows} once, outside any savepoint, so the
+   * stamp trigger does not take it per row (V19). It is held until commit either way.
+   */
+  private void lockChanges(List<RecordEntity> rows) {
+    rows.stream().map(RecordEntity::getUserId).distinct().sorted().forEach(userId ->
+        jdbc.query("select record_lock_changes(?)", rs -> null, userId));
+  }
+
+  private void insertIsolating(List<RecordEntity> rows, int offset, Map<Integer, String> rejected) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    jdbc.execute("savepoint record_batch");
+    try {
+      batchInsert(rows);
+      jdbc.execute("release savepoint record_batch");
+    } catch (DataAccessException ex) {
+      jdbc.execute("rollback to savepoint record_batch");
+      jdbc.execute("release savepoint record_batch");
+      if (rows.size() == 1) {
+        rejected.put(offset, firstLine(ex.getMostSpecificCause().getMessage()));
+        return;
+      }
+      int mid = rows.size() / 2;
+      insertIsolating(rows.subList(0, mid), offset, rejected);
+      insertIsolating(rows.subList(mid, rows.size()), offset + mid, rejected);
+    }
+  }
+
+  private void batchInsert(List<RecordEntity> rows) {
+    jdbc.batchUpdate(INSERT_SQL, rows, batchSize, (ps, e) -> {
+      ps.setObject(1, e.getId(), Types.OTHER);
+      ps.setObject(2, e.getUserId(), Types.OTHER);
+      ps.setObject(3, e.getCategoryId(), Types.OTHER);
+      ps.setString(4, e.getKind().name());
+      ps.setString(5, e.getStatus().name());
+      ps.setBigDecimal(6, e.getAmount());
+      ps.setObject(7, e.getDueDate(), Types.DATE);
+      ps.setObject(8, utc(e.getPaidAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+      ps.setString(9, e.getDescription());
+      ps.setObject(10, utc(e.getCreatedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+      ps.setObject(11, utc(e.getUpdatedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+    });
+  }
+
+  private static String firstLine(String message) {
+    if (message == null) {
+      return "Rejected by the database";
+    }
+    int nl = message.indexOf('\n');
+    return nl < 0 ? message : message.substring(0, nl);
+  }
+
+  private static OffsetDateTime utc(Instant instant) {
+    return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,111 @@
+package com.finance.api.record.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.record.domain.RecordStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/** Set-based writes over many records of one user, each issued as a single statement. */
+@Repository
+public class RecordBulkOperations {
+
+  /** Mirrors RecordService.updateStatus: INCOME/PAID becomes RECEIVED and paid_at is kept, set or cleared. */
+  private static final String UPDATE_STATUS_SQL =
+      """
+      update record r
+      set status = case when r.kind = 'INCOME' and ? = 'PAID' then 'RECEIVED' else ? end,
+          paid_at = case when ? then coalesce(r.paid_at, now()) end,
+          updated_at = now(),
+          version = r.version + 1
+      where r.user_id = ? and r.id = any(?)
+      returning r.id, r.category_id, r.kind, r.status, r.amount, r.due_date, r.paid_at, r.description,
+                r.recurrence_rule_id, r.version
+      """;
+
+  private final JdbcTemplate jdbc;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  public RecordBulkOperations(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Deletes the user's records among {@code ids}; returns the ids that existed and were deleted. */
+  public List<UUID> deleteByIds(UUID userId, List<UUID> ids) {
+    return jdbc.query(con -> {
+      var ps = con.prepareStatement("delete from record r where r.user_id = ? and r.id = any(?) returning r.id");
+      ps.setObject(1, userId);
+      ps.setArray(2, con.createArrayOf("uuid", ids.toArray()));
+      return ps;
+    }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+  }
+
+  /** Deletes every row matching {@code spec} with a single DELETE; returns the affected count. */
+  public int deleteMatching(Specification<RecordEntity> spec) {
+    var cb = em.getCriteriaBuilder();
+    var delete = cb.createCriteriaDelete(RecordEntity.class);
+    var root = delete.from(RecordEntity.class);
+    delete.where(spec.toPredicate(root, null, cb));
+    return em.createQuery(delete).executeUpdate();
+  }
+
+  /** Sets {@code categoryId} on every row matching {@code spec} with a single UPDATE; returns the affected count. */
+  public int setCategory(Specification<RecordEntity> spec, UUID categoryId) {
+    var cb = em.getCriteriaBuilder();
+    var update = cb.createCriteriaUpdate(RecordEntity.class);
+    var root = update.from(RecordEntity.class);
+    update.set(root.<UUID>get("categoryId"), categoryId);
+    update.set(root.<Instant>get("updatedAt"), Instant.now());
+    update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+    update.where(spec.toPredicate(root, null, cb));
+    return em.createQuery(update).executeUpdate();
+  }
+
+  public boolean categoryBelongsTo(UUID categoryId, UUID userId) {
+    return Boolean.TRUE.equals(jdbc.queryForObject(
+        "select exists (select 1 from category where id = ? and user_id = ?)", Boolean.class, categoryId, userId));
+  }
+
+  public List<RecordResponse> updateStatus(UUID userId, List<UUID> ids, RecordStatus status) {
+    boolean settled = status == RecordStatus.PAID || status == RecordStatus.RECEIVED;
+    return jdbc.query(con -> {
+      var ps = con.prepareStatement(UPDATE_STATUS_SQL);
+      ps.setString(1, status.name());
+      ps.setString(2, status.name());
+      ps.setBoolean(3, settled);
+      ps.setObject(4, userId);
+      ps.setArray(5, con.createArrayOf("uuid", ids.toArray()));
+      return ps;
+    }, RecordBulkOperations::toResponse);
+  }
+
+  static RecordResponse toResponse(ResultSet rs, int rowNum) throws SQLException {
+    var paidAt = rs.getObject("paid_at", OffsetDateTime.class);
+    return new RecordResponse(
+        rs.getObject("id", UUID.class),
+        rs.getObject("category_id", UUID.class),
+        RecordKind.valueOf(rs.getString("kind")),
+        RecordStatus.valueOf(rs.getString("status")),
+        rs.getBigDecimal("amount"),
+        rs.getObject("due_date", LocalDate.class),
+        paidAt == null ? null : paidAt.toInstant(),
+        rs.getString("description"),
+        rs.getObject("recurrence_rule_id", UUID.class),
+        rs.getLong("version"));
+  }
+}
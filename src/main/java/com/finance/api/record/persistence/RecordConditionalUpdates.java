@@ -0,0 +1,87 @@
+package com.finance.api.record.persistence;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.record.domain.RecordStatus;
+
+/**
+ * Single-record writes as one {@code UPDATE ... RETURNING}, without loading the row first.
+ * Each statement sets only the columns its operation changes, bumps {@code version}, and
+ * when {@code expectedVersion} is given matches it, so a stale write updates nothing.
+ * An empty result means the record is missing or the version did not match.
+ */
+@Repository
+public class RecordConditionalUpdates {
+
+  private static final String RETURNING =
+      " returning r.id, r.category_id, r.kind, r.status, r.amount, r.due_date, r.paid_at, r.description,"
+          + " r.recurrence_rule_id, r.version";
+
+  private final JdbcTemplate jdbc;
+
+  public RecordConditionalUpdates(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Replaces the editable fields; {@code status} must already be normalised for {@code kind}. */
+  public Optional<RecordResponse> replace(UUID userId, UUID id, Long expectedVersion, RecordKind kind,
+      RecordStatus status, BigDecimal amount, LocalDate dueDate, UUID categoryId, String description) {
+    List<Object> args = new ArrayList<>(List.of(kind.name(), status.name(), amount, dueDate));
+    // Typed nulls, so the driver does not need a describe round trip to bind them.
+    args.add(new SqlParameterValue(Types.OTHER, categoryId));
+    args.add(new SqlParameterValue(Types.VARCHAR, description));
+    args.add(isSettled(status));
+    return update("""
+        kind = ?, status = ?, amount = ?, due_date = ?, category_id = ?, description = ?,
+        paid_at = case when ? then coalesce(r.paid_at, now()) end""", args, userId, id, expectedVersion);
+  }
+
+  /** Settles the record: PAID for expenses, RECEIVED for income, paid now. */
+  public Optional<RecordResponse> confirm(UUID userId, UUID id, Long expectedVersion) {
+    return update("""
+        status = case when r.kind = 'INCOME' then 'RECEIVED' else 'PAID' end,
+        paid_at = now()""", new ArrayList<>(), userId, id, expectedVersion);
+  }
+
+  /** Same rules as the bulk status update: INCOME/PAID becomes RECEIVED; paid_at is kept, set or cleared. */
+  public Optional<RecordResponse> updateStatus(UUID userId, UUID id, Long expectedVersion, RecordStatus status) {
+    List<Object> args = new ArrayList<>(List.of(status.name(), status.name(), isSettled(status)));
+    return update("""
+        status = case when r.kind = 'INCOME' and ? = 'PAID' then 'RECEIVED' else ? end,
+        paid_at = case when ? then coalesce(r.paid_at, now()) end""", args, userId, id, expectedVersion);
+  }
+
+  public boolean exists(UUID userId, UUID id) {
+    return Boolean.TRUE.equals(jdbc.queryForObject(
+        "select exists (select 1 from record where id = ? and user_id = ?)", Boolean.class, id, userId));
+  }
+
+  private Optional<RecordResponse> update(String set, List<Object> args, UUID userId, UUID id, Long expectedVersion) {
+    var sql = new StringBuilder("update record r set ").append(set)
+        .append(", updated_at = now(), version = r.version + 1 where r.id = ? and r.user_id = ?");
+    args.add(id);
+    args.add(userId);
+    if (expectedVersion != null) {
+      sql.append(" and r.version = ?");
+      args.add(expectedVersion);
+    }
+    sql.append(RETURNING);
+    return jdbc.query(sql.toString(), RecordBulkOperations::toResponse, args.toArray()).stream().findFirst();
+  }
+
+  private static boolean isSettled(RecordStatus status) {
+    return status == RecordStatus.PAID || status == RecordStatus.RECEIVED;
+  }
+}
@@ -0,0 +1,158 @@
+package com.finance.api.record.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.common.util.CsvUtils;
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordStatus;
+
+/**
+ * Loads large record imports with PostgreSQL {@code COPY FROM STDIN} into a transaction-scoped
+ * staging table, then moves them into {@code record} with one set-based INSERT.
+ * Every method must run inside the caller's transaction.
+ */
+@Repository
+public class RecordCopyLoader {
+
+  private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+  private static final String CREATE_STAGE_SQL =
+      """
+      create temp table record_import_stage (
+        line_no     bigint        not null,
+        kind        varchar(16)   not null,
+        status      varchar(16)   not null,
+        amount      numeric(14,2) not null,
+        due_date    date          not null,
+        category_id uuid,
+        description varchar(255)
+      ) on commit drop
+      """;
+
+  private static final String COPY_SQL =
+      "copy record_import_stage (line_no, kind, status, amount, due_date, category_id, description) "
+          + "from stdin with (format csv)";
+
+  /** Same INCOME/PAID -> RECEIVED normalisation and paid_at rule as RecordService. */
+  private static final String INSERT_FROM_STAGE_SQL =
+      """
+      insert into record (user_id, category_id, kind, status, amount, due_date, paid_at, description)
+      select ?, s.category_id, s.kind,
+             case when s.kind = 'INCOME' and s.status = 'PAID' then 'RECEIVED' else s.status end,
+             s.amount, s.due_date,
+             case when s.status in ('PAID', 'RECEIVED') then now() end,
+             s.description
+      from record_import_stage s
+      where s.category_id is null
+         or exists (select 1 from category c where c.id = s.category_id and c.user_id = ?)
+      """;
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbc;
+
+  public RecordCopyLoader(DataSource dataSource, JdbcTemplate jdbc) {
+    this.dataSource = dataSource;
+    this.jdbc = jdbc;
+  }
+
+  /** Creates the staging table and starts a COPY into it on the transaction's connection. */
+  public Stage openStage() {
+    jdbc.execute(CREATE_STAGE_SQL);
+    try {
+      var con = DataSourceUtils.getConnection(dataSource);
+      var copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+      return new Stage(copy);
+    } catch (SQLException ex) {
+      throw jdbc.getExceptionTranslator().translate("COPY record_import_stage", COPY_SQL, ex);
+    }
+  }
+
+  /**
+   * Moves staged rows owned by {@code userId} into {@code record}; rows naming another user's category are skipped.
+   * Takes the user's change lock once for the whole INSERT rather than per row (V19).
+   */
+  public int insertFromStage(UUID userId) {
+    jdbc.query("select record_lock_changes(?)", rs -> null, userId);
+    return jdbc.update(INSERT_FROM_STAGE_SQL, userId, userId);
+  }
+
+  /** Line numbers of staged rows that {@link #insertFromStage} skips because the category is not the user's. */
+  public List<Long> stagedWithForeignCategory(UUID userId) {
+    return jdbc.queryForList(
+        """
+        select s.line_no from record_import_stage s
+        where s.category_id is not null
+          and not exists (select 1 from category c where c.id = s.category_id and c.user_id = ?)
+        order by s.line_no
+        """, Long.class, userId);
+  }
+
+  /** Buffered CSV writer feeding an open COPY. */
+  public final class Stage {
+
+    private final CopyIn copy;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_BYTES);
+
+    private Stage(CopyIn copy) {
+      this.copy = copy;
+    }
+
+    public void add(long lineNo, RecordKind kind, RecordStatus status, BigDecimal amount, LocalDate dueDate,
+        UUID categoryId, String description) {
+      String row = lineNo + "," + kind + "," + status + "," + amount.toPlainString() + "," + dueDate + ","
+          + (categoryId == null ? "" : categoryId.toString()) + ","
+          + (description == null ? "" : CsvUtils.escape(description)) + "\n";
+      buffer.writeBytes(row.getBytes(StandardCharsets.UTF_8));
+      if (buffer.size() >= COPY_BUFFER_BYTES) {
+        flush();
+      }
+    }
+
+    /** Ends the COPY and returns the number of staged rows. */
+    public long finish() {
+      flush();
+      try {
+        return copy.endCopy();
+      } catch (SQLException ex) {
+        throw jdbc.getExceptionTranslator().translate("COPY record_import_stage", COPY_SQL, ex);
+      }
+    }
+
+    /** Aborts the COPY so the connection can roll back cleanly. */
+    public void cancel() {
+      try {
+        if (copy.isActive()) {
+          copy.cancelCopy();
+        }
+      } catch (SQLException ignore) {
+        // the enclosing transaction is being rolled back anyway
+      }
+    }
+
+    private void flush() {
+      if (buffer.size() == 0) {
+        return;
+      }
+      try {
+        copy.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+        buffer.reset();
+      } catch (SQLException ex) {
+        throw jdbc.getExceptionTranslator().translate("COPY record_import_stage", COPY_SQL, ex);
+      }
+    }
+  }
+}
@@ -17,6 +17,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(
@@ -30,6 +31,7 @@ import jakarta.persistence.Table;
 )
 public class RecordEntity {
 
+    // The table is partitioned by due_date with primary key (id, due_date); ids are still unique.
     @Id
     @GeneratedValue
     private UUID id;
@@ -60,12 +62,22 @@ public class RecordEntity {
     @Column(length = 255)
     private String description;
 
+    @Column(name = "recurrence_rule_id")
+    private UUID recurrenceRuleId;
+
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
 
     @Column(nullable = false)
     private Instant updatedAt = Instant.now();
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @PreUpdate
     public void touch() {
         this.updatedAt = Instant.now();
@@ -158,4 +170,24 @@ public class RecordEntity {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public UUID getRecurrenceRuleId() {
+        return recurrenceRuleId;
+    }
+
+    public void setRecurrenceRuleId(UUID recurrenceRuleId) {
+        this.recurrenceRuleId = recurrenceRuleId;
+    }
+
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
 }
@@ -0,0 +1,21 @@
+package com.finance.api.record.persistence;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Partition upkeep for the record table; see V15. */
+@Repository
+public class RecordPartitions {
+
+  private final JdbcTemplate jdbc;
+
+  public RecordPartitions(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Creates the monthly partitions up to {@code monthsAhead} months from now; returns how many were new. */
+  public int ensure(int monthsAhead) {
+    Integer created = jdbc.queryForObject("select record_ensure_partitions(?)", Integer.class, monthsAhead);
+    return created == null ? 0 : created;
+  }
+}
@@ -0,0 +1,134 @@
+package com.finance.api.record.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.record.domain.RecordResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Read paths that select {@link RecordResponse} columns directly instead of hydrating entities.
+ * With {@code withArchive} they read {@link RecordAllEntity}, live plus archived records.
+ */
+@Repository
+public class RecordQueries {
+
+  private static final int STREAM_FETCH_SIZE = 1000;
+
+  @PersistenceContext
+  private EntityManager em;
+
+  /**
+   * Forward-only stream over every matching row ordered by {@code (dueDate, id)}.
+   * PostgreSQL only honours the fetch size inside a transaction, so callers must hold one
+   * open and close the stream when done.
+   */
+  public Stream<RecordResponse> stream(Specification<RecordEntity> spec, boolean withArchive) {
+    return em.createQuery(select(spec, Sort.by("dueDate", "id"), null, withArchive))
+        .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream();
+  }
+
+  /**
+   * One page of matching rows in the pageable's order. The count query is skipped when
+   * the page is the first and is not full, as {@code findAll(spec, pageable)} does.
+   */
+  public Page<RecordResponse> page(Specification<RecordEntity> spec, Pageable pageable) {
+    return page(spec, pageable, null, false);
+  }
+
+  /** As {@link #page(Specification, Pageable)}, best description matches for {@code rankBy} first. */
+  public Page<RecordResponse> page(Specification<RecordEntity> spec, Pageable pageable, String rankBy,
+      boolean withArchive) {
+    var query = em.createQuery(select(spec, pageable.getSort(), rankBy, withArchive));
+    if (pageable.isPaged()) {
+      query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+      query.setMaxResults(pageable.getPageSize());
+    }
+    return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec, withArchive));
+  }
+
+  /** At most {@code limit} matching rows in {@code sort} order. */
+  public List<RecordResponse> list(Specification<RecordEntity> spec, Sort sort, int limit, boolean withArchive) {
+    return em.createQuery(select(spec, sort, null, withArchive)).setMaxResults(limit).getResultList();
+  }
+
+  /** The user's record {@code id}, looked up among archived records too with {@code withArchive}. */
+  public Optional<RecordResponse> find(UUID userId, UUID id, boolean withArchive) {
+    Specification<RecordEntity> spec = RecordSpecifications.belongsTo(userId)
+        .and((root, query, cb) -> cb.equal(root.get("id"), id));
+    return em.createQuery(select(spec, Sort.unsorted(), null, withArchive)).setMaxResults(1)
+        .getResultStream().findFirst();
+  }
+
+  public long count(Specification<RecordEntity> spec) {
+    return count(spec, false);
+  }
+
+  public long count(Specification<RecordEntity> spec, boolean withArchive) {
+    var cb = em.getCriteriaBuilder();
+    var cq = cb.createQuery(Long.class);
+    var root = from(cq, withArchive);
+    cq.select(cb.count(root));
+    cq.where(spec.toPredicate(root, cq, cb));
+    return em.createQuery(cq).getSingleResult();
+  }
+
+  /** Ids of the matching rows, at most {@code limit} of them. */
+  public List<UUID> ids(Specification<RecordEntity> spec, int limit) {
+    var cb = em.getCriteriaBuilder();
+    var cq = cb.createQuery(UUID.class);
+    var root = cq.from(RecordEntity.class);
+    cq.select(root.get("id"));
+    cq.where(spec.toPredicate(root, cq, cb));
+    return em.createQuery(cq).setMaxResults(limit).getResultList();
+  }
+
+  /** Selects the {@link RecordResponse} columns only; no entity is loaded or tracked. */
+  private CriteriaQuery<RecordResponse> select(Specification<RecordEntity> spec, Sort sort, String rankBy,
+      boolean withArchive) {
+    var cb = em.getCriteriaBuilder();
+    var cq = cb.createQuery(RecordResponse.class);
+    var root = from(cq, withArchive);
+    cq.select(cb.construct(RecordResponse.class,
+        root.get("id"), root.get("categoryId"), root.get("kind"), root.get("status"),
+        root.get("amount"), root.get("dueDate"), root.get("paidAt"), root.get("description"),
+        root.get("recurrenceRuleId"), root.get("version")));
+    cq.where(spec.toPredicate(root, cq, cb));
+    List<Order> orders = new ArrayList<>();
+    if (rankBy != null && !rankBy.isBlank()) {
+      orders.add(cb.desc(cb.function("record_text_rank", Float.class, root.get("description"), cb.literal(rankBy.strip()))));
+    }
+    orders.addAll(QueryUtils.toOrders(sort, root, cb));
+    cq.orderBy(orders);
+    return cq;
+  }
+
+  /**
+   * {@link RecordAllEntity} shares every attribute name the specifications use, so its root
+   * stands in for a {@link RecordEntity} one.
+   */
+  @SuppressWarnings("unchecked")
+  private static Root<RecordEntity> from(AbstractQuery<?> cq, boolean withArchive) {
+    return withArchive ? (Root<RecordEntity>) (Root<?>) cq.from(RecordAllEntity.class) : cq.from(RecordEntity.class);
+  }
+}
@@ -10,6 +10,4 @@ public interface RecordRepository extends JpaRepository<RecordEntity, UUID>,
         JpaSpecificationExecutor<RecordEntity> {
 
     Optional<RecordEntity> findByIdAndUserId(UUID id, UUID userId);
-
-    long deleteByUserIdAndIdIn(UUID userId, Iterable<UUID> ids);
 }
@@ -1,11 +1,13 @@
 package com.finance.api.record.persistence;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.UUID;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import com.finance.api.record.domain.RecordFilter;
 import com.finance.api.record.domain.RecordKind;
 import com.finance.api.record.domain.RecordStatus;
 
@@ -21,6 +23,15 @@ public final class RecordSpecifications {
     return (root, cq, cb) -> cb.between(root.get("dueDate"), from, to);
   }
 
+  /** Open-ended bounds stay plain comparisons, so partitions outside them are pruned. */
+  public static Specification<RecordEntity> dueDateFrom(LocalDate from) {
+    return (root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), from);
+  }
+
+  public static Specification<RecordEntity> dueDateUntil(LocalDate to) {
+    return (root, cq, cb) -> cb.lessThanOrEqualTo(root.get("dueDate"), to);
+  }
+
   public static Specification<RecordEntity> monthEquals(YearMonth ym) {
     LocalDate from = ym.atDay(1);
     LocalDate to = ym.atEndOfMonth();
@@ -38,4 +49,61 @@ public final class RecordSpecifications {
   public static Specification<RecordEntity> hasCategory(UUID categoryId) {
     return (root, cq, cb) -> cb.equal(root.get("categoryId"), categoryId);
   }
+
+  /** Word or substring match on the description; see {@code record_matches_text} in V10. */
+  public static Specification<RecordEntity> descriptionMatches(String q) {
+    return (root, cq, cb) -> cb.isTrue(
+        cb.function("record_matches_text", Boolean.class, root.get("description"), cb.literal(q.strip())));
+  }
+
+  public static Specification<RecordEntity> amountAtLeast(BigDecimal min) {
+    return (root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+  }
+
+  public static Specification<RecordEntity> amountAtMost(BigDecimal max) {
+    return (root, cq, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+  }
+
+  /** Rows strictly after {@code (dueDate, id)}; the redundant lower bound lets the index seek. */
+  public static Specification<RecordEntity> after(LocalDate dueDate, UUID id) {
+    return (root, cq, cb) -> cb.and(
+        cb.greaterThanOrEqualTo(root.get("dueDate"), dueDate),
+        cb.or(
+            cb.greaterThan(root.get("dueDate"), dueDate),
+            cb.greaterThan(root.<UUID>get("id"), id)));
+  }
+
+  public static Specification<RecordEntity> matching(UUID userId, RecordFilter filter) {
+    Specification<RecordEntity> spec = Specification.where(belongsTo(userId));
+
+    if (filter.month() != null) {
+      spec = spec.and(monthEquals(filter.month()));
+    } else if (filter.startDate() != null && filter.endDate() != null) {
+      spec = spec.and(dueDateBetween(filter.startDate(), filter.endDate()));
+    } else if (filter.startDate() != null) {
+      spec = spec.and(dueDateFrom(filter.startDate()));
+    } else if (filter.endDate() != null) {
+      spec = spec.and(dueDateUntil(filter.endDate()));
+    }
+
+    if (filter.status() != null) {
+      spec = spec.and(hasStatus(filter.status()));
+    }
+    if (filter.kind() != null) {
+      spec = spec.and(hasKind(filter.kind()));
+    }
+    if (filter.categoryId() != null) {
+      spec = spec.and(hasCategory(filter.categoryId()));
+    }
+    if (filter.hasText()) {
+      spec = spec.and(descriptionMatches(filter.q()));
+    }
+    if (filter.minAmount() != null) {
+      spec = spec.and(amountAtLeast(filter.minAmount()));
+    }
+    if (filter.maxAmount() != null) {
+      spec = spec.and(amountAtMost(filter.maxAmount()));
+    }
+    return spec;
+  }
 }
@@ -0,0 +1,99 @@
+package com.finance.api.record.persistence;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.record.domain.RecordResponse;
+
+/** Reads of the change sequence and tombstones maintained by the V11 triggers. */
+@Repository
+public class RecordSyncQueries {
+
+  /** A change at {@code seq}: the record as it is now, or a deleted id when {@code record} is null. */
+  public record Change(long seq, UUID id, RecordResponse record) { }
+
+  private final JdbcTemplate jdbc;
+
+  public RecordSyncQueries(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Upserts and deletes after {@code since} in sequence order, at most {@code limit}. */
+  public List<Change> changesSince(UUID userId, long since, int limit) {
+    return jdbc.query("""
+        select * from (
+          select r.change_seq, r.id, false as deleted, r.category_id, r.kind, r.status, r.amount,
+                 r.due_date, r.paid_at, r.description, r.recurrence_rule_id, r.version
+          from record r
+          where r.user_id = ? and r.change_seq > ?
+          order by r.change_seq
+          limit ?
+        ) upserts
+        union all
+        select * from (
+          select t.change_seq, t.record_id, true, null::uuid, null, null, null, null::date, null::timestamptz, null,
+                 null::uuid, null::bigint
+          from record_tombstone t
+          where t.user_id = ? and t.change_seq > ?
+          order by t.change_seq
+          limit ?
+        ) deletes
+        order by 1
+        limit ?
+        """, (rs, i) -> {
+          long seq = rs.getLong(1);
+          UUID id = rs.getObject(2, UUID.class);
+          if (rs.getBoolean(3)) {
+            return new Change(seq, id, null);
+          }
+          return new Change(seq, id, RecordBulkOperations.toResponse(rs, i));
+        }, userId, since, limit, userId, since, limit, limit);
+  }
+
+  /**
+   * A position covering every committed change of the user; a client that refetches everything
+   * can continue from here. Takes the user's change lock first so no write of theirs is still
+   * in flight with a lower sequence; callers must hold a transaction.
+   */
+  public long currentSeq(UUID userId) {
+    jdbc.query("select pg_advisory_xact_lock(hashtext('record_change_seq'), hashtext(?::text))",
+        rs -> null, userId);
+    Long seq = jdbc.queryForObject("select last_value from record_change_seq", Long.class);
+    return seq == null ? 0 : seq;
+  }
+
+  public long purgedThrough() {
+    Long seq = jdbc.queryForObject("select purged_through from record_sync_horizon", Long.class);
+    return seq == null ? 0 : seq;
+  }
+
+  /** Deletes up to {@code limit} tombstones older than {@code retention} and advances the horizon. */
+  public int purgeTombstones(Duration retention, int limit) {
+    Long purged = jdbc.queryForObject("""
+        with gone as (
+          delete from record_tombstone t
+          using (
+            select user_id, record_id
+            from record_tombstone
+            where deleted_at < ?
+            limit ?
+            for update skip locked
+          ) old
+          where t.user_id = old.user_id and t.record_id = old.record_id
+          returning t.change_seq
+        ), advanced as (
+          update record_sync_horizon
+          set purged_through = greatest(purged_through, (select max(change_seq) from gone))
+          where exists (select 1 from gone)
+        )
+        select count(*) from gone
+        """, Long.class, Timestamp.from(Instant.now().minus(retention)), limit);
+    return purged == null ? 0 : purged.intValue();
+  }
+}
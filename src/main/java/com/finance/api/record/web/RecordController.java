@@ -1,10 +1,11 @@
 package com.finance.api.record.web;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -14,6 +15,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,11 +30,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.finance.api.common.api.ApiResponse;
+import com.finance.api.common.api.CursorPage;
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.record.application.BulkJobService;
+import com.finance.api.record.application.BulkStreamService;
+import com.finance.api.record.application.RecordChangeStream;
+import com.finance.api.record.application.RecordImportService;
 import com.finance.api.record.application.RecordService;
+import com.finance.api.record.application.RecordSyncService;
+import com.finance.api.record.domain.BulkJobResponse;
 import com.finance.api.record.domain.BulkResult;
+import com.finance.api.record.domain.RecordBulkStatusRequest;
+import com.finance.api.record.domain.RecordCategoryUpdateRequest;
+import com.finance.api.record.domain.RecordChanges;
+import com.finance.api.record.domain.RecordExportFormat;
+import com.finance.api.record.domain.RecordFilter;
 import com.finance.api.record.domain.RecordKind;
 import com.finance.api.record.domain.RecordRequest;
 import com.finance.api.record.domain.RecordResponse;
@@ -51,12 +73,27 @@ import jakarta.validation.Valid;
 public class RecordController {
 
     private static final Logger log = LoggerFactory.getLogger(RecordController.class);
+    private static final String IF_MATCH_DOC =
+            "ETag (version) of the record as last read; the write fails with 412 if it changed since";
     private static final DateTimeFormatter YM = DateTimeFormatter.ofPattern("yyyy-MM");
 
     private final RecordService service;
+    private final RecordImportService importService;
+    private final BulkJobService bulkJobs;
+    private final BulkStreamService bulkStream;
+    private final RecordChangeStream changes;
+    private final RecordSyncService sync;
+    private final ObjectMapper mapper;
 
-    public RecordController(RecordService service) {
+    public RecordController(RecordService service, RecordImportService importService, BulkJobService bulkJobs,
+            BulkStreamService bulkStream, RecordChangeStream changes, RecordSyncService sync, ObjectMapper mapper) {
         this.service = service;
+        this.importService = importService;
+        this.bulkJobs = bulkJobs;
+        this.bulkStream = bulkStream;
+        this.changes = changes;
+        this.sync = sync;
+        this.mapper = mapper;
     }
 
     private static UUID resolveUserId(Authentication auth) {
@@ -67,9 +104,40 @@ public class RecordController {
         throw new IllegalStateException("Unsupported principal type: " + (p == null ? "null" : p.getClass()));
     }
 
+    /** Parses If-Match ({@code "3"}, {@code W/"3"} or {@code *}) into the expected record version. */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("If-Match must be the ETag of the record");
+        }
+    }
+
+    private static ResponseEntity<ApiResponse<RecordResponse>> versioned(String message, RecordResponse out) {
+        return ResponseEntity.ok()
+                .eTag("\"" + out.version() + "\"")
+                .body(ApiResponse.ok(message, out));
+    }
+
+    private static RecordFilter filter(String month, LocalDate startDate, LocalDate endDate,
+            RecordStatus status, RecordKind kind, UUID categoryId) {
+        YearMonth ym = (month == null || month.isBlank()) ? null : YearMonth.parse(month, YM);
+        return new RecordFilter(ym, startDate, endDate, status, kind, categoryId);
+    }
+
     @Operation(
         summary = "List records (paged) with month or date range filters",
-        description = "Filter by month (yyyy-MM) or by startDate/endDate; optional filters: status, kind, categoryId."
+        description = "Filter by month (yyyy-MM) or by startDate/endDate; optional filters: status, kind, categoryId, "
+                + "q (description search, best matches first) and minAmount/maxAmount. With includeRecurring, "
+                + "pending occurrences of recurrence rules inside the month or startDate..endDate window are "
+                + "listed too, without an id."
     )
     @GetMapping
     public ApiResponse<Page<RecordResponse>> list(
@@ -85,21 +153,118 @@ public class RecordController {
             @RequestParam(required = false) RecordStatus status,
             @RequestParam(required = false) RecordKind kind,
             @RequestParam(required = false) UUID categoryId,
+            @Parameter(description = "Words or a fragment of the description")
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Also list generated occurrences of recurring records (needs a bounded window)")
+            @RequestParam(defaultValue = "false") boolean includeRecurring,
             @ParameterObject @PageableDefault(size = 50, sort = "dueDate") Pageable pageable
     ) {
         UUID userId = resolveUserId(auth);
-        Optional<YearMonth> ym = Optional.ofNullable(month).filter(s -> !s.isBlank()).map(s -> YearMonth.parse(s, YM));
-        Page<RecordResponse> page = service.list(userId,
-                Optional.ofNullable(startDate),
-                Optional.ofNullable(endDate),
-                ym,
-                Optional.ofNullable(status),
-                Optional.ofNullable(kind),
-                Optional.ofNullable(categoryId),
-                pageable);
+        YearMonth ym = (month == null || month.isBlank()) ? null : YearMonth.parse(month, YM);
+        var filter = new RecordFilter(ym, startDate, endDate, status, kind, categoryId, q, minAmount, maxAmount);
+        Page<RecordResponse> page = includeRecurring
+                ? service.listWithOccurrences(userId, filter, pageable)
+                : service.list(userId, filter, pageable);
         return ApiResponse.ok(page);
     }
 
+    @Operation(
+        summary = "List records by cursor (keyset pagination)",
+        description = "Same filters as GET /records, ordered by dueDate then id. Pass the previous page's "
+                + "nextCursor as 'after'; no total count is computed."
+    )
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPage<RecordResponse>> listByCursor(
+            @Parameter(hidden = true) Authentication auth,
+            @Parameter(description = "Opaque cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(schema = @Schema(minimum = "1", maximum = "500", defaultValue = "50"))
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(
+                name = "month",
+                description = "Year-month formatted as yyyy-MM (takes precedence over start/end)",
+                schema = @Schema(pattern = "^[0-9]{4}-[0-9]{2}$")
+            )
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) RecordStatus status,
+            @RequestParam(required = false) RecordKind kind,
+            @RequestParam(required = false) UUID categoryId
+    ) {
+        UUID userId = resolveUserId(auth);
+        var filter = filter(month, startDate, endDate, status, kind, categoryId);
+        return ApiResponse.ok(service.listAfter(userId, filter, after, size));
+    }
+
+    @Operation(
+        summary = "Stream record changes (Server-Sent Events)",
+        description = "Pushes a 'change' event for every committed create, update, status change or delete of the "
+                + "caller's records, and a heartbeat comment every few seconds. Reconnect with Last-Event-ID to "
+                + "resume; a 'reset' event means the gap could not be replayed and the client should refetch."
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(name = "Last-Event-ID", description = "Id of the last event received", in = ParameterIn.HEADER)
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        return changes.subscribe(resolveUserId(auth), lastEventId);
+    }
+
+    @Operation(
+        summary = "Delta sync: records changed and ids deleted since a position",
+        description = "Start with since=0 and keep passing the returned cursor. Results are ordered by change "
+                + "sequence; fetch again while hasMore is true. reset=true means the position is too old, or is 0 "
+                + "while some records are archived (those never appear here): refetch all records, then continue "
+                + "from the returned cursor."
+    )
+    @GetMapping("/changes")
+    public ApiResponse<RecordChanges> changes(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int size,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        return ApiResponse.ok(sync.changesSince(resolveUserId(auth), since, size));
+    }
+
+    @Operation(
+        summary = "Export all matching records as NDJSON or CSV",
+        description = "Streams rows as they are read from the database; accepts the same filters as GET /records."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(hidden = true) Authentication auth,
+            @RequestParam(defaultValue = "NDJSON") RecordExportFormat format,
+            @Parameter(
+                name = "month",
+                description = "Year-month formatted as yyyy-MM (takes precedence over start/end)",
+                schema = @Schema(pattern = "^[0-9]{4}-[0-9]{2}$")
+            )
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) RecordStatus status,
+            @RequestParam(required = false) RecordKind kind,
+            @RequestParam(required = false) UUID categoryId
+    ) {
+        UUID userId = resolveUserId(auth);
+        var filter = filter(month, startDate, endDate, status, kind, categoryId);
+        StreamingResponseBody body = out -> {
+            try (var writer = new RecordExportWriter(format, mapper, out)) {
+                long rows = service.export(userId, filter, writer);
+                log.debug("export userId={}, format={}, rows={}", userId, format, rows);
+            }
+        };
+        String filename = "records." + format.name().toLowerCase();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @Operation(summary = "Bulk create records (idempotent by X-Request-Id)")
     @PostMapping("/bulk")
     public ApiResponse<BulkResult> bulkCreate(
@@ -114,61 +279,218 @@ public class RecordController {
         return ApiResponse.ok("Bulk processed", result);
     }
 
-    @Operation(summary = "Create a single record")
+    @Operation(
+        summary = "Bulk create records in chunks with per-item errors (idempotent by X-Request-Id)",
+        description = "Commits every chunk separately. Invalid items and rows rejected by the database are "
+                + "skipped and listed by index in 'errors' instead of failing the whole request."
+    )
+    @PostMapping("/bulk/chunked")
+    public ApiResponse<BulkResult> bulkCreateChunked(
+            @RequestBody List<RecordRequest> items,
+            @Parameter(name = "X-Request-Id", description = "Idempotency key to safely retry the same request", in = ParameterIn.HEADER)
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = resolveUserId(auth);
+        log.debug("bulkCreateChunked userId={}, count={}, reqId={}", userId, items.size(), requestId);
+        var result = service.bulkCreateChunked(userId, items, requestId);
+        return ApiResponse.ok("Bulk processed", result);
+    }
+
+    @Operation(
+        summary = "Bulk create records from a large JSON array (idempotent by X-Request-Id)",
+        description = "Same body as POST /records/bulk, parsed incrementally and written in fixed-size batches. "
+                + "Items that fail validation are skipped and counted as failed."
+    )
+    @PostMapping(value = "/bulk/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ApiResponse<BulkResult> bulkCreateStream(
+            InputStream body,
+            @Parameter(name = "X-Request-Id", description = "Idempotency key to safely retry the same request", in = ParameterIn.HEADER)
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = resolveUserId(auth);
+        var result = bulkStream.bulkCreate(userId, body, requestId);
+        log.debug("bulkCreateStream userId={}, created={}, failed={}, reqId={}",
+                userId, result.created(), result.failed(), requestId);
+        return ApiResponse.ok("Bulk processed", result);
+    }
+
+    @Operation(
+        summary = "Submit an asynchronous bulk create job (idempotent by X-Request-Id)",
+        description = "Stores the items and returns immediately; poll GET /records/bulk/jobs/{id} for progress."
+    )
+    @PostMapping("/bulk/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<BulkJobResponse> submitBulkJob(
+            @Valid @RequestBody List<@Valid RecordRequest> items,
+            @Parameter(name = "X-Request-Id", description = "Idempotency key to safely retry the same request", in = ParameterIn.HEADER)
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = resolveUserId(auth);
+        log.debug("submitBulkJob userId={}, count={}, reqId={}", userId, items.size(), requestId);
+        return ApiResponse.ok("Bulk job accepted", bulkJobs.submit(userId, items, requestId));
+    }
+
+    @Operation(summary = "Get bulk job progress")
+    @GetMapping("/bulk/jobs/{id}")
+    public ApiResponse<BulkJobResponse> getBulkJob(@PathVariable UUID id, @Parameter(hidden = true) Authentication auth) {
+        UUID userId = resolveUserId(auth);
+        return ApiResponse.ok(bulkJobs.get(userId, id));
+    }
+
+    @Operation(
+        summary = "Import records from CSV",
+        description = "Header row names the record fields (kind,status,amount,dueDate,categoryId,description). "
+                + "Rows are validated while streaming and loaded with COPY; invalid rows are counted as failed."
+    )
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ApiResponse<BulkResult> importCsv(
+            InputStream body,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = resolveUserId(auth);
+        var result = importService.importCsv(userId, body);
+        return ApiResponse.ok("Import processed", result);
+    }
+
+    @Operation(summary = "Create a single record (idempotent by X-Request-Id)")
     @PostMapping
     public ApiResponse<RecordResponse> create(
             @Valid @RequestBody RecordRequest in,
+            @Parameter(name = "X-Request-Id", description = "Idempotency key to safely retry the same request", in = ParameterIn.HEADER)
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
             @Parameter(hidden = true) Authentication auth
     ) {
         UUID userId = resolveUserId(auth);
-        var out = service.create(userId, in);
+        var out = service.create(userId, in, requestId);
         return ApiResponse.ok("Created", out);
     }
 
     @Operation(summary = "Get record by id")
     @GetMapping("/{id}")
-    public ApiResponse<RecordResponse> get(@PathVariable UUID id, @Parameter(hidden = true) Authentication auth) {
+    public ResponseEntity<ApiResponse<RecordResponse>> get(@PathVariable UUID id, @Parameter(hidden = true) Authentication auth) {
         UUID userId = resolveUserId(auth);
-        return ApiResponse.ok(service.get(userId, id));
+        return versioned("OK", service.get(userId, id));
     }
 
     @Operation(summary = "Update record by id")
     @PutMapping("/{id}")
-    public ApiResponse<RecordResponse> update(
+    public ResponseEntity<ApiResponse<RecordResponse>> update(
             @PathVariable UUID id,
             @Valid @RequestBody RecordRequest in,
+            @Parameter(name = "If-Match", description = IF_MATCH_DOC, in = ParameterIn.HEADER)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(hidden = true) Authentication auth
     ) {
         UUID userId = resolveUserId(auth);
-        return ApiResponse.ok("Updated", service.update(userId, id, in));
+        return versioned("Updated", service.update(userId, id, in, expectedVersion(ifMatch)));
     }
 
-    @Operation(summary = "Delete many records (body is array of UUIDs)")
+    @Operation(
+        summary = "Delete many records",
+        description = "Deletes the ids in the body (array of UUIDs; an empty array deletes nothing); without "
+                + "a body, deletes every record matching the query filters. At least one filter is required in that case. "
+                + "Archived records are read-only: an id among them fails the request with 409 and nothing is deleted."
+    )
     @DeleteMapping
     public ApiResponse<java.util.Map<String, Long>> deleteMany(
-            @RequestBody List<UUID> ids,
+            @RequestBody(required = false) List<UUID> ids,
+            @Parameter(
+                name = "month",
+                description = "Year-month formatted as yyyy-MM (takes precedence over start/end)",
+                schema = @Schema(pattern = "^[0-9]{4}-[0-9]{2}$")
+            )
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) RecordStatus status,
+            @RequestParam(required = false) RecordKind kind,
+            @RequestParam(required = false) UUID categoryId,
             @Parameter(hidden = true) Authentication auth
     ) {
         UUID userId = resolveUserId(auth);
-        long deleted = service.deleteMany(userId, ids);
+        long deleted = ids != null
+                ? service.deleteMany(userId, ids)
+                : service.deleteMatching(userId, filter(month, startDate, endDate, status, kind, categoryId));
         return ApiResponse.ok("Deleted", java.util.Map.of("deleted", deleted));
     }
 
+    @Operation(
+        summary = "Recategorise every record matching the filters",
+        description = "Sets categoryId (null clears it) on all records matching the query filters in one statement."
+    )
+    @PatchMapping("/category")
+    public ApiResponse<java.util.Map<String, Long>> setCategory(
+            @RequestBody RecordCategoryUpdateRequest in,
+            @Parameter(
+                name = "month",
+                description = "Year-month formatted as yyyy-MM (takes precedence over start/end)",
+                schema = @Schema(pattern = "^[0-9]{4}-[0-9]{2}$")
+            )
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) RecordStatus status,
+            @RequestParam(required = false) RecordKind kind,
+            @RequestParam(required = false) UUID categoryId,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = resolveUserId(auth);
+        var filter = filter(month, startDate, endDate, status, kind, categoryId);
+        long updated = service.setCategoryMatching(userId, filter, in.categoryId());
+        return ApiResponse.ok("Updated", java.util.Map.of("updated", updated));
+    }
+
     @Operation(summary = "Confirm record (paid/received) depending on kind")
     @PatchMapping("/{id}/confirm")
-    public ApiResponse<RecordResponse> confirm(@PathVariable UUID id, @Parameter(hidden = true) Authentication auth) {
+    public ResponseEntity<ApiResponse<RecordResponse>> confirm(
+            @PathVariable UUID id,
+            @Parameter(name = "If-Match", description = IF_MATCH_DOC, in = ParameterIn.HEADER)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = resolveUserId(auth);
+        return versioned("Confirmed", service.confirm(userId, id, expectedVersion(ifMatch)));
+    }
+
+    @Operation(
+        summary = "Update the status of many records at once",
+        description = "Targets the ids in the body, or every record matching the query filters when ids is empty. "
+                + "Returns the updated records."
+    )
+    @PatchMapping("/status")
+    public ApiResponse<List<RecordResponse>> updateStatusMany(
+            @Valid @RequestBody RecordBulkStatusRequest in,
+            @Parameter(
+                name = "month",
+                description = "Year-month formatted as yyyy-MM (takes precedence over start/end)",
+                schema = @Schema(pattern = "^[0-9]{4}-[0-9]{2}$")
+            )
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) RecordStatus status,
+            @RequestParam(required = false) RecordKind kind,
+            @RequestParam(required = false) UUID categoryId,
+            @Parameter(hidden = true) Authentication auth
+    ) {
         UUID userId = resolveUserId(auth);
-        return ApiResponse.ok("Confirmed", service.confirm(userId, id));
+        var filter = filter(month, startDate, endDate, status, kind, categoryId);
+        return ApiResponse.ok("Status updated", service.updateStatusMany(userId, in.ids(), filter, in.status()));
     }
 
     @Operation(summary = "Update record status explicitly")
     @PatchMapping("/{id}/status")
-    public ApiResponse<RecordResponse> updateStatus(
+    public ResponseEntity<ApiResponse<RecordResponse>> updateStatus(
             @PathVariable UUID id,
             @Valid @RequestBody RecordStatusUpdateRequest in,
+            @Parameter(name = "If-Match", description = IF_MATCH_DOC, in = ParameterIn.HEADER)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(hidden = true) Authentication auth
     ) {
         UUID userId = resolveUserId(auth);
-        return ApiResponse.ok("Status updated", service.updateStatus(userId, id, in.status()));
+        return versioned("Status updated", service.updateStatus(userId, id, in.status(), expectedVersion(ifMatch)));
     }
 }
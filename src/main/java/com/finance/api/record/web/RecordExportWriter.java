@@ -0,0 +1,67 @@
+package com.finance.api.record.web;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.api.common.util.CsvUtils;
+import com.finance.api.record.domain.RecordExportFormat;
+import com.finance.api.record.domain.RecordResponse;
+
+/** Serialises exported records one line at a time onto the response stream. */
+final class RecordExportWriter implements Consumer<RecordResponse>, AutoCloseable {
+
+    private static final String CSV_HEADER = "id,categoryId,kind,status,amount,dueDate,paidAt,description";
+
+    private final RecordExportFormat format;
+    private final ObjectMapper mapper;
+    private final Writer out;
+
+    RecordExportWriter(RecordExportFormat format, ObjectMapper mapper, OutputStream out) throws IOException {
+        this.format = format;
+        this.mapper = mapper;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == RecordExportFormat.CSV) {
+            this.out.write(CSV_HEADER);
+            this.out.write('\n');
+        }
+    }
+
+    @Override
+    public void accept(RecordResponse r) {
+        try {
+            out.write(format == RecordExportFormat.CSV ? csv(r) : json(r));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    private String json(RecordResponse r) throws JsonProcessingException {
+        return mapper.writeValueAsString(r);
+    }
+
+    private static String csv(RecordResponse r) {
+        return String.join(",",
+                String.valueOf(r.id()),
+                r.categoryId() == null ? "" : r.categoryId().toString(),
+                r.kind().name(),
+                r.status().name(),
+                r.amount().toPlainString(),
+                r.dueDate().toString(),
+                r.paidAt() == null ? "" : r.paidAt().toString(),
+                CsvUtils.escape(r.description()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.finance.api.recurrence.application;
+
+import java.util.UUID;
+
+import com.finance.api.common.event.UserDataChanged;
+
+public record RecurrenceChangedEvent(UUID userId, UUID ruleId) implements UserDataChanged { }
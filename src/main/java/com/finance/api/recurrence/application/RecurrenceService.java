@@ -0,0 +1,167 @@
+package com.finance.api.recurrence.application;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.finance.api.category.persistence.CategoryRepository;
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.common.exception.NotFoundException;
+import com.finance.api.record.application.RecordService;
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.record.domain.RecordStatus;
+import com.finance.api.recurrence.domain.Occurrence;
+import com.finance.api.recurrence.domain.RecurrenceRequest;
+import com.finance.api.recurrence.domain.RecurrenceResponse;
+import com.finance.api.recurrence.persistence.OccurrenceQueries;
+import com.finance.api.recurrence.persistence.RecurrenceRuleEntity;
+import com.finance.api.recurrence.persistence.RecurrenceRuleRepository;
+
+/**
+ * Recurring records kept as rules. Occurrences are generated when read and become records
+ * only when confirmed or edited, through {@link RecordService#createOccurrence}.
+ */
+@Service
+public class RecurrenceService {
+
+  private static final long MAX_WINDOW_DAYS = 731;
+
+  private final RecurrenceRuleRepository repo;
+  private final OccurrenceQueries occurrences;
+  private final CategoryRepository categories;
+  private final RecordService records;
+  private final ApplicationEventPublisher events;
+
+  public RecurrenceService(RecurrenceRuleRepository repo, OccurrenceQueries occurrences,
+      CategoryRepository categories, RecordService records, ApplicationEventPublisher events) {
+    this.repo = repo;
+    this.occurrences = occurrences;
+    this.categories = categories;
+    this.records = records;
+    this.events = events;
+  }
+
+  @Transactional
+  public RecurrenceResponse create(UUID userId, RecurrenceRequest in) {
+    var e = new RecurrenceRuleEntity();
+    e.setUserId(userId);
+    apply(userId, e, in);
+    return changed(userId, repo.save(e));
+  }
+
+  @Transactional(readOnly = true)
+  public Page<RecurrenceResponse> list(UUID userId, Pageable pageable) {
+    return repo.findByUserId(userId, pageable).map(this::toResponse);
+  }
+
+  @Transactional(readOnly = true)
+  public RecurrenceResponse get(UUID userId, UUID id) {
+    return toResponse(find(userId, id));
+  }
+
+  /** Changes apply to occurrences not recorded yet; recorded ones keep their values. */
+  @Transactional
+  public RecurrenceResponse update(UUID userId, UUID id, RecurrenceRequest in) {
+    var e = find(userId, id);
+    apply(userId, e, in);
+    return changed(userId, repo.save(e));
+  }
+
+  /** Stops generating occurrences; records created from the rule are kept. */
+  @Transactional
+  public void delete(UUID userId, UUID id) {
+    repo.delete(find(userId, id));
+    events.publishEvent(new RecurrenceChangedEvent(userId, id));
+  }
+
+  @Transactional(readOnly = true)
+  public List<Occurrence> occurrences(UUID userId, LocalDate from, LocalDate to) {
+    if (from == null || to == null || to.isBefore(from)) {
+      throw new BadRequestException("Provide from and to, with from not after to");
+    }
+    if (ChronoUnit.DAYS.between(from, to) > MAX_WINDOW_DAYS) {
+      throw new BadRequestException("The window must be at most " + MAX_WINDOW_DAYS + " days");
+    }
+    return occurrences.find(userId, from, to);
+  }
+
+  /** Records the occurrence as settled (PAID, or RECEIVED for income). */
+  @Transactional
+  public RecordResponse confirm(UUID userId, UUID id, LocalDate date) {
+    var o = pending(userId, id, date);
+    return records.createOccurrence(userId, id, date, new RecordRequest(
+        o.kind(), RecordStatus.PAID, o.amount(), o.date(), o.categoryId(), o.description()));
+  }
+
+  /** Records the occurrence with the given values instead of the rule's. */
+  @Transactional
+  public RecordResponse edit(UUID userId, UUID id, LocalDate date, RecordRequest in) {
+    pending(userId, id, date);
+    if (in.categoryId() != null && categories.findByIdAndUserId(in.categoryId(), userId).isEmpty()) {
+      throw new NotFoundException("Category not found");
+    }
+    return records.createOccurrence(userId, id, date, in);
+  }
+
+  /** Removes a single occurrence without recording it. */
+  @Transactional
+  public void skip(UUID userId, UUID id, LocalDate date) {
+    pending(userId, id, date);
+    occurrences.resolve(id, date);
+    events.publishEvent(new RecurrenceChangedEvent(userId, id));
+  }
+
+  private Occurrence pending(UUID userId, UUID id, LocalDate date) {
+    find(userId, id);
+    return occurrences.find(userId, id, date)
+        .orElseThrow(() -> new NotFoundException("Occurrence not found"));
+  }
+
+  private RecurrenceRuleEntity find(UUID userId, UUID id) {
+    return repo.findByIdAndUserId(id, userId)
+        .orElseThrow(() -> new NotFoundException("Recurrence not found"));
+  }
+
+  private void apply(UUID userId, RecurrenceRuleEntity e, RecurrenceRequest in) {
+    if (in.endDate() != null && in.endDate().isBefore(in.startDate())) {
+      throw new BadRequestException("endDate must not be before startDate");
+    }
+    if (in.categoryId() != null && categories.findByIdAndUserId(in.categoryId(), userId).isEmpty()) {
+      throw new NotFoundException("Category not found");
+    }
+    RecordStatus status = in.status() != null ? in.status() : RecordStatus.PENDING;
+    if (in.kind() == RecordKind.INCOME && status == RecordStatus.PAID) {
+      status = RecordStatus.RECEIVED;
+    }
+    e.setKind(in.kind());
+    e.setStatus(status);
+    e.setAmount(in.amount());
+    e.setCategoryId(in.categoryId());
+    e.setDescription(in.description());
+    e.setFrequency(in.frequency());
+    e.setInterval(in.interval() != null ? in.interval() : 1);
+    e.setStartDate(in.startDate());
+    e.setEndDate(in.endDate());
+    e.setOccurrenceCount(in.occurrenceCount());
+  }
+
+  private RecurrenceResponse changed(UUID userId, RecurrenceRuleEntity e) {
+    events.publishEvent(new RecurrenceChangedEvent(userId, e.getId()));
+    return toResponse(e);
+  }
+
+  private RecurrenceResponse toResponse(RecurrenceRuleEntity e) {
+    return new RecurrenceResponse(e.getId(), e.getKind(), e.getStatus(), e.getAmount(), e.getCategoryId(),
+        e.getDescription(), e.getFrequency(), e.getInterval(), e.getStartDate(), e.getEndDate(),
+        e.getOccurrenceCount());
+  }
+}
@@ -0,0 +1,26 @@
+package com.finance.api.recurrence.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.record.domain.RecordStatus;
+
+/** A generated, not yet materialised occurrence of a recurrence rule; {@code number} starts at 1. */
+public record Occurrence(
+    UUID ruleId,
+    LocalDate date,
+    int number,
+    RecordKind kind,
+    RecordStatus status,
+    BigDecimal amount,
+    UUID categoryId,
+    String description
+) {
+  /** The occurrence as it is listed next to real records: no id until it is materialised. */
+  public RecordResponse toRecord() {
+    return new RecordResponse(null, categoryId, kind, status, amount, date, null, description, ruleId, 0);
+  }
+}
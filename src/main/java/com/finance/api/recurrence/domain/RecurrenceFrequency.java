@@ -0,0 +1,3 @@
+package com.finance.api.recurrence.domain;
+
+public enum RecurrenceFrequency { WEEKLY, MONTHLY, YEARLY }
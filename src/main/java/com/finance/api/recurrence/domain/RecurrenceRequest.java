@@ -0,0 +1,30 @@
+package com.finance.api.recurrence.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordStatus;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A repeating record: every {@code interval} weeks, months or years from {@code startDate},
+ * until {@code endDate} and/or for {@code occurrenceCount} occurrences (installments).
+ */
+public record RecurrenceRequest(
+    @NotNull(message = "Kind is required") RecordKind kind,
+    RecordStatus status,
+    @NotNull(message = "Amount is required") @DecimalMin(value = "0.00") BigDecimal amount,
+    UUID categoryId,
+    @Size(max = 255, message = "Description must be at most 255 characters") String description,
+    @NotNull(message = "Frequency is required") RecurrenceFrequency frequency,
+    @Min(value = 1, message = "Interval must be at least 1") Integer interval,
+    @NotNull(message = "Start date is required") LocalDate startDate,
+    LocalDate endDate,
+    @Min(value = 1, message = "Occurrence count must be at least 1") Integer occurrenceCount
+) { }
@@ -0,0 +1,22 @@
+package com.finance.api.recurrence.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordStatus;
+
+public record RecurrenceResponse(
+    UUID id,
+    RecordKind kind,
+    RecordStatus status,
+    BigDecimal amount,
+    UUID categoryId,
+    String description,
+    RecurrenceFrequency frequency,
+    int interval,
+    LocalDate startDate,
+    LocalDate endDate,
+    Integer occurrenceCount
+) { }
@@ -0,0 +1,63 @@
+package com.finance.api.recurrence.persistence;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordStatus;
+import com.finance.api.recurrence.domain.Occurrence;
+
+/** Reads of {@code recurrence_occurrences()} (V14); nothing is stored per occurrence. */
+@Repository
+public class OccurrenceQueries {
+
+  private static final String SELECT =
+      """
+      select rule_id, occurrence_date, occurrence_no, kind, status, amount, category_id, description
+      from recurrence_occurrences(?, ?, ?)
+      """;
+
+  private final JdbcTemplate jdbc;
+
+  public OccurrenceQueries(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Pending occurrences between {@code from} and {@code to}, by date. */
+  public List<Occurrence> find(UUID userId, LocalDate from, LocalDate to) {
+    return jdbc.query(SELECT + " order by occurrence_date, rule_id", (rs, i) -> toOccurrence(rs),
+        userId, Date.valueOf(from), Date.valueOf(to));
+  }
+
+  public Optional<Occurrence> find(UUID userId, UUID ruleId, LocalDate date) {
+    return jdbc.query(SELECT + " where rule_id = ?", (rs, i) -> toOccurrence(rs),
+        userId, Date.valueOf(date), Date.valueOf(date), ruleId).stream().findFirst();
+  }
+
+  /**
+   * Stops generating the occurrence, because it is being recorded or skipped. False when it
+   * was already resolved; a concurrent caller waits on the key until this transaction ends.
+   */
+  public boolean resolve(UUID ruleId, LocalDate date) {
+    return jdbc.update("insert into recurrence_resolved (rule_id, occurrence_date) values (?, ?) on conflict do nothing",
+        ruleId, Date.valueOf(date)) == 1;
+  }
+
+  private static Occurrence toOccurrence(java.sql.ResultSet rs) throws java.sql.SQLException {
+    return new Occurrence(
+        rs.getObject("rule_id", UUID.class),
+        rs.getObject("occurrence_date", LocalDate.class),
+        rs.getInt("occurrence_no"),
+        RecordKind.valueOf(rs.getString("kind")),
+        RecordStatus.valueOf(rs.getString("status")),
+        rs.getBigDecimal("amount"),
+        rs.getObject("category_id", UUID.class),
+        rs.getString("description"));
+  }
+}
@@ -0,0 +1,15 @@
+package com.finance.api.recurrence.persistence;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RecurrenceRuleRepository extends JpaRepository<RecurrenceRuleEntity, UUID> {
+
+    Optional<RecurrenceRuleEntity> findByIdAndUserId(UUID id, UUID userId);
+
+    Page<RecurrenceRuleEntity> findByUserId(UUID userId, Pageable pageable);
+}
@@ -0,0 +1,153 @@
+package com.finance.api.recurrence.web;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.finance.api.common.api.ApiResponse;
+import com.finance.api.common.api.PageResponse;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.recurrence.application.RecurrenceService;
+import com.finance.api.recurrence.domain.Occurrence;
+import com.finance.api.recurrence.domain.RecurrenceRequest;
+import com.finance.api.recurrence.domain.RecurrenceResponse;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/recurrences")
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Recurrences", description = "Recurring records and installments of the current user")
+public class RecurrenceController {
+
+    private final RecurrenceService service;
+
+    public RecurrenceController(RecurrenceService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Create a recurrence rule (every N weeks, months or years; until endDate and/or occurrenceCount)")
+    @PostMapping
+    public ApiResponse<RecurrenceResponse> create(
+            @Valid @RequestBody RecurrenceRequest in,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok("Created", service.create(userId, in));
+    }
+
+    @Operation(summary = "List recurrence rules")
+    @GetMapping
+    public ApiResponse<PageResponse<RecurrenceResponse>> list(
+            @ParameterObject @PageableDefault(size = 20, sort = "startDate") Pageable pageable,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok(PageResponse.from(service.list(userId, pageable)));
+    }
+
+    @Operation(
+        summary = "List pending occurrences in a window",
+        description = "Occurrences are generated on request and are not stored until confirmed or edited."
+    )
+    @GetMapping("/occurrences")
+    public ApiResponse<List<Occurrence>> occurrences(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok(service.occurrences(userId, from, to));
+    }
+
+    @Operation(summary = "Get a recurrence rule by id")
+    @GetMapping("/{id}")
+    public ApiResponse<RecurrenceResponse> get(
+            @Parameter(in = ParameterIn.PATH, description = "Recurrence id") @PathVariable UUID id,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok(service.get(userId, id));
+    }
+
+    @Operation(summary = "Update a recurrence rule (affects occurrences not recorded yet)")
+    @PutMapping("/{id}")
+    public ApiResponse<RecurrenceResponse> update(
+            @Parameter(in = ParameterIn.PATH, description = "Recurrence id") @PathVariable UUID id,
+            @Valid @RequestBody RecurrenceRequest in,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok("Updated", service.update(userId, id, in));
+    }
+
+    @Operation(summary = "Delete a recurrence rule (records already created are kept)")
+    @DeleteMapping("/{id}")
+    public ApiResponse<Void> delete(
+            @Parameter(in = ParameterIn.PATH, description = "Recurrence id") @PathVariable UUID id,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        service.delete(userId, id);
+        return ApiResponse.ok("Deleted", null);
+    }
+
+    @Operation(summary = "Confirm an occurrence, recording it as paid/received")
+    @PostMapping("/{id}/occurrences/{date}/confirm")
+    public ApiResponse<RecordResponse> confirm(
+            @Parameter(in = ParameterIn.PATH, description = "Recurrence id") @PathVariable UUID id,
+            @Parameter(in = ParameterIn.PATH, description = "Occurrence date (yyyy-MM-dd)")
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok("Confirmed", service.confirm(userId, id, date));
+    }
+
+    @Operation(summary = "Edit an occurrence, recording it with the given values")
+    @PutMapping("/{id}/occurrences/{date}")
+    public ApiResponse<RecordResponse> edit(
+            @Parameter(in = ParameterIn.PATH, description = "Recurrence id") @PathVariable UUID id,
+            @Parameter(in = ParameterIn.PATH, description = "Occurrence date (yyyy-MM-dd)")
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Valid @RequestBody RecordRequest in,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        return ApiResponse.ok("Updated", service.edit(userId, id, date, in));
+    }
+
+    @Operation(summary = "Skip an occurrence without recording it")
+    @DeleteMapping("/{id}/occurrences/{date}")
+    public ApiResponse<Void> skip(
+            @Parameter(in = ParameterIn.PATH, description = "Recurrence id") @PathVariable UUID id,
+            @Parameter(in = ParameterIn.PATH, description = "Occurrence date (yyyy-MM-dd)")
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        service.skip(userId, id, date);
+        return ApiResponse.ok("Skipped", null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.finance.api.report.application;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.finance.api.dataversion.application.DataVersionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Node-local cache of report results. Keys carry the user's data version, which every record,
+ * category and recurrence write bumps, so a write makes exactly that user's cached reports
+ * unreachable; they then age out by size or {@code app.reports.cache.ttl}. Writes on other
+ * nodes are seen once the version cache expires ({@code app.data-version.cache-ttl}).
+ * <p>
+ * Hits, misses, evictions and size are registered as {@code cache.*} meters tagged
+ * {@code cache=reports}, for whichever registry is configured. The actuator metrics endpoint
+ * stays unexposed: every registered user can authenticate, and metrics are for operators.
+ */
+@Component
+public class ReportCache {
+
+    private final DataVersionService versions;
+    private final Cache<Key, Object> results;
+
+    public ReportCache(DataVersionService versions, MeterRegistry meterRegistry,
+            @Value("${app.reports.cache.max-size:10000}") long maxSize,
+            @Value("${app.reports.cache.ttl:PT10M}") Duration ttl) {
+        this.versions = versions;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "reports");
+    }
+
+    /**
+     * The cached result of {@code report} for these parameters, computed by {@code loader} on a
+     * miss. Concurrent misses for the same key wait for a single load.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, String report, LocalDate from, LocalDate to, List<UUID> categoryIds,
+            Supplier<T> loader) {
+        var key = new Key(userId, versions.current(userId), report, from, to, normalize(categoryIds));
+        return (T) results.get(key, k -> loader.get());
+    }
+
+    /** Filters differing only in order or duplicates select the same records. */
+    private static List<UUID> normalize(List<UUID> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return List.of();
+        }
+        return categoryIds.stream().distinct().sorted().toList();
+    }
+
+    private record Key(UUID userId, long version, String report, LocalDate from, LocalDate to,
+            List<UUID> categoryIds) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.finance.api.report.application;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.finance.api.report.persistence.ReportRollups;
+
+/**
+ * Walks users a batch at a time, comparing their monthly rollups with their records and
+ * rebuilding any that drifted (e.g. after a manual data fix with triggers disabled). The
+ * position is node-local; after a restart the walk starts over.
+ */
+@Component
+public class ReportRollupVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportRollupVerifier.class);
+
+    private final ReportRollups rollups;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private volatile UUID position;
+
+    public ReportRollupVerifier(ReportRollups rollups, TransactionTemplate tx,
+            @Value("${app.reports.rollup.verify-batch-size:200}") int batchSize) {
+        this.rollups = rollups;
+        this.tx = tx;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.rollup.verify-interval:PT10M}",
+            initialDelayString = "${app.reports.rollup.verify-initial-delay:PT5M}")
+    public void verify() {
+        var users = rollups.usersAfter(position, batchSize);
+        position = users.size() < batchSize ? null : users.get(users.size() - 1);
+        if (users.isEmpty()) {
+            return;
+        }
+        for (UUID userId : rollups.mismatched(users)) {
+            log.warn("Monthly rollups of user {} did not match their records; rebuilding", userId);
+            tx.executeWithoutResult(status -> rollups.rebuild(userId));
+        }
+    }
+}
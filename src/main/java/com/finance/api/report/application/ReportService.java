@@ -1,47 +1,119 @@
 package com.finance.api.report.application;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.finance.api.common.api.PageResponse;
+import com.finance.api.common.exception.BadRequestException;
 import com.finance.api.report.domain.CashflowItem;
 import com.finance.api.report.domain.CashflowReport;
 import com.finance.api.report.domain.CategoryReportItem;
+import com.finance.api.report.domain.DashboardReport;
+import com.finance.api.report.domain.ForecastBacktest;
 import com.finance.api.report.domain.ForecastItem;
+import com.finance.api.report.domain.ForecastModel;
 import com.finance.api.report.domain.SummaryReport;
 import com.finance.api.report.persistence.ReportQueries;
-
+import com.finance.api.report.persistence.ReportQueries.CashflowRow;
+import com.finance.api.report.persistence.ReportQueries.CategoryRow;
+import com.finance.api.report.persistence.ReportQueries.SummaryRow;
+
+/**
+ * Reports are served from {@link ReportCache}; only misses open a read-only transaction, so
+ * repeated reads take no pooled connection.
+ */
 @Service
 public class ReportService {
 
+    private static final int MAX_MONTHS_AHEAD = 24;
+
     private final ReportQueries queries;
+    private final ReportCache cache;
+    private final TransactionTemplate readOnly;
 
-    public ReportService(ReportQueries queries) {
+    public ReportService(ReportQueries queries, ReportCache cache, PlatformTransactionManager txManager) {
         this.queries = queries;
+        this.cache = cache;
+        this.readOnly = new TransactionTemplate(txManager);
+        this.readOnly.setReadOnly(true);
     }
 
-    @Transactional(readOnly = true)
     public SummaryReport summary(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
-        var row = queries.querySummary(userId, from, to, categoryIds);
+        return cache.get(userId, "summary", from, to, categoryIds,
+                () -> readOnly.execute(s -> loadSummary(userId, from, to, categoryIds)));
+    }
+
+    public CashflowReport cashflow(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        return cache.get(userId, "cashflow", from, to, categoryIds,
+                () -> readOnly.execute(s -> loadCashflow(userId, from, to, categoryIds)));
+    }
+
+    public PageResponse<CategoryReportItem> byCategory(UUID userId, LocalDate from, LocalDate to,
+            List<UUID> categoryIds, Pageable pageable) {
+        String report = "by-category:" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return cache.get(userId, report, from, to, categoryIds,
+                () -> readOnly.execute(s -> loadByCategory(userId, from, to, categoryIds, pageable)));
+    }
+
+    public List<ForecastItem> forecast(UUID userId, LocalDate from, LocalDate to,
+            List<UUID> categoryIds, int monthsAhead, ForecastModel model) {
+        if (monthsAhead < 1 || monthsAhead > MAX_MONTHS_AHEAD) {
+            throw new BadRequestException("monthsAhead must be between 1 and " + MAX_MONTHS_AHEAD);
+        }
+        return cache.get(userId, "forecast:" + model + ":" + monthsAhead, from, to, categoryIds,
+                () -> readOnly.execute(s -> loadForecast(userId, from, to, categoryIds, monthsAhead, model)));
+    }
+
+    /** How each forecast model would have fared on this history, one month ahead at a time. */
+    public List<ForecastBacktest> backtest(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        return cache.get(userId, "forecast-backtest", from, to, categoryIds,
+                () -> readOnly.execute(s -> loadBacktest(userId, from, to, categoryIds)));
+    }
+
+    /** Summary, cashflow and category totals for one filter, read in a single scan. */
+    public DashboardReport dashboard(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        return cache.get(userId, "dashboard", from, to, categoryIds,
+                () -> readOnly.execute(s -> loadDashboard(userId, from, to, categoryIds)));
+    }
+
+    private SummaryReport loadSummary(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        return toSummary(queries.querySummary(userId, from, to, categoryIds));
+    }
+
+    private CashflowReport loadCashflow(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        return toCashflow(queries.queryCashflow(userId, from, to, categoryIds));
+    }
+
+    private PageResponse<CategoryReportItem> loadByCategory(UUID userId, LocalDate from, LocalDate to,
+            List<UUID> categoryIds, Pageable pageable) {
+        var page = queries.queryByCategory(userId, from, to, categoryIds, pageable);
+        return PageResponse.from(page.map(ReportService::toCategoryItem));
+    }
+
+    private DashboardReport loadDashboard(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        var rows = queries.queryDashboard(userId, from, to, categoryIds);
+        return new DashboardReport(toSummary(rows.summary()), toCashflow(rows.months()),
+                toCategoryItems(rows.categories()));
+    }
+
+    private static SummaryReport toSummary(SummaryRow row) {
         BigDecimal income = row.income();
         BigDecimal expense = row.expense();
         return new SummaryReport(income, expense, income.subtract(expense));
     }
 
-    @Transactional(readOnly = true)
-    public CashflowReport cashflow(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
-        var rows = queries.queryCashflow(userId, from, to, categoryIds);
+    private static CashflowReport toCashflow(List<CashflowRow> rows) {
         var items = rows.stream()
                 .map(r -> new CashflowItem(r.month(), r.income(), r.expense(), r.income().subtract(r.expense())))
                 .toList();
@@ -51,59 +123,79 @@ public class ReportService {
         return new CashflowReport(items, totalIncome, totalExpense, totalIncome.subtract(totalExpense));
     }
 
-    @Transactional(readOnly = true)
-    public PageResponse<CategoryReportItem> byCategory(UUID userId, LocalDate from, LocalDate to,
-            List<UUID> categoryIds, Pageable pageable) {
-        var rows = queries.queryByCategory(userId, from, to, categoryIds);
-        var items = rows.stream()
-                .map(r -> new CategoryReportItem(
-                r.id(), r.name(), r.income(), r.expense(), r.income().subtract(r.expense())))
-                .toList();
+    private static List<CategoryReportItem> toCategoryItems(List<CategoryRow> rows) {
+        return rows.stream().map(ReportService::toCategoryItem).toList();
+    }
 
-        int page = pageable.getPageNumber();
-        int size = pageable.getPageSize();
-        int start = Math.min(page * size, items.size());
-        int end = Math.min(start + size, items.size());
-        List<CategoryReportItem> slice = items.subList(start, end);
-        int totalPages = (int) Math.ceil(items.size() / (double) size);
-        return new PageResponse<>(slice, page, size, items.size(), totalPages);
+    private static CategoryReportItem toCategoryItem(CategoryRow r) {
+        return new CategoryReportItem(r.id(), r.name(), r.income(), r.expense(), r.income().subtract(r.expense()));
     }
 
-    @Transactional(readOnly = true)
-    public List<ForecastItem> forecast(UUID userId, LocalDate from, LocalDate to,
-            List<UUID> categoryIds, int monthsAhead) {
-        var rows = queries.queryCashflow(userId, from, to, categoryIds);
-
-        Map<YearMonth, BigDecimal[]> map = rows.stream().collect(Collectors.toMap(
-                r -> r.month(),
-                r -> new BigDecimal[]{r.income(), r.expense()},
-                (a, b) -> a,
-                TreeMap::new
-        ));
-
-        int window = 3;
-        YearMonth last = map.isEmpty() ? YearMonth.now() : map.keySet().stream().reduce((a, b) -> b).orElse(YearMonth.now());
-        List<ForecastItem> out = new ArrayList<>();
-
-        for (int i = 1; i <= monthsAhead; i++) {
-            last = last.plusMonths(1);
-
-            BigDecimal avgIncome = movingAverage(map.values().stream().map(v -> v[0]).toList(), window);
-            BigDecimal avgExpense = movingAverage(map.values().stream().map(v -> v[1]).toList(), window);
-            var item = new ForecastItem(last, avgIncome, avgExpense, avgIncome.subtract(avgExpense));
-            out.add(item);
-            map.put(last, new BigDecimal[]{avgIncome, avgExpense});
+    private List<ForecastItem> loadForecast(UUID userId, LocalDate from, LocalDate to,
+            List<UUID> categoryIds, int monthsAhead, ForecastModel model) {
+        var series = Series.of(queries.queryCashflow(userId, from, to, categoryIds));
+        long[] income = model.forecast(series.income(), series.income().length, monthsAhead);
+        long[] expense = model.forecast(series.expense(), series.expense().length, monthsAhead);
+
+        List<ForecastItem> out = new ArrayList<>(monthsAhead);
+        for (int k = 0; k < monthsAhead; k++) {
+            out.add(new ForecastItem(series.last().plusMonths(k + 1L),
+                    toAmount(income[k]), toAmount(expense[k]), toAmount(income[k] - expense[k])));
+        }
+        return List.copyOf(out);
+    }
+
+    private List<ForecastBacktest> loadBacktest(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+        var series = Series.of(queries.queryCashflow(userId, from, to, categoryIds));
+        List<ForecastBacktest> out = new ArrayList<>();
+        for (ForecastModel model : ForecastModel.values()) {
+            int months = Math.max(0, series.income().length - model.minHistory());
+            out.add(new ForecastBacktest(model, months,
+                    meanAbsoluteError(model, series.income()), meanAbsoluteError(model, series.expense())));
         }
-        return out;
+        return List.copyOf(out);
+    }
+
+    /** Mean error of predicting each month from the ones before it, or null when none can be. */
+    private static BigDecimal meanAbsoluteError(ForecastModel model, long[] history) {
+        long total = 0;
+        int months = 0;
+        for (int t = model.minHistory(); t < history.length; t++) {
+            total += Math.abs(model.forecast(history, t, 1)[0] - history[t]);
+            months++;
+        }
+        return months == 0 ? null : BigDecimal.valueOf(total, 2).divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
     }
 
-    private static BigDecimal movingAverage(List<BigDecimal> values, int window) {
-        if (values == null || values.isEmpty()) {
-            return BigDecimal.ZERO;
+    /**
+     * Monthly income and expense in cents from the first month with data to the last, months
+     * without records counting as zero. With no data the series is empty and ends this month.
+     */
+    private record Series(YearMonth last, long[] income, long[] expense) {
+
+        static Series of(List<CashflowRow> rows) {
+            if (rows.isEmpty()) {
+                return new Series(YearMonth.now(), new long[0], new long[0]);
+            }
+            YearMonth first = rows.get(0).month();
+            YearMonth last = rows.get(rows.size() - 1).month();
+            int length = (int) first.until(last, ChronoUnit.MONTHS) + 1;
+            long[] income = new long[length];
+            long[] expense = new long[length];
+            for (var r : rows) {
+                int i = (int) first.until(r.month(), ChronoUnit.MONTHS);
+                income[i] += toCents(r.income());
+                expense[i] += toCents(r.expense());
+            }
+            return new Series(last, income, expense);
         }
-        int n = Math.min(values.size(), window);
-        return values.subList(values.size() - n, values.size())
-                .stream().reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(n), java.math.RoundingMode.HALF_UP);
     }
 }
@@ -0,0 +1,9 @@
+package com.finance.api.report.domain;
+
+import java.util.List;
+
+public record DashboardReport(
+    SummaryReport summary,
+    CashflowReport cashflow,
+    List<CategoryReportItem> categories
+) { }
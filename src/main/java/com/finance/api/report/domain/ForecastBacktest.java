@@ -0,0 +1,15 @@
+package com.finance.api.report.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * One-step-ahead error of a model replayed over the user's history: each month from
+ * {@link ForecastModel#minHistory()} on is predicted from the months before it. Errors are
+ * null when the history is too short to test the model.
+ */
+public record ForecastBacktest(
+    ForecastModel model,
+    int months,
+    BigDecimal incomeMeanAbsoluteError,
+    BigDecimal expenseMeanAbsoluteError
+) { }
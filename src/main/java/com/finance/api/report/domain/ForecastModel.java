@@ -0,0 +1,161 @@
+package com.finance.api.report.domain;
+
+import java.util.Arrays;
+
+/**
+ * Forecasting models over a monthly series in cents. Each reads the first {@code length} values
+ * of {@code history} in place and returns {@code horizon} projected months; projections of
+ * trending models are floored at zero, since income and expense totals cannot be negative.
+ */
+public enum ForecastModel {
+
+  /**
+   * Moving average of the last three months, each projection feeding the next. With less
+   * history the window grows with the projections until it holds three months.
+   */
+  SMA(1) {
+    @Override
+    public long[] forecast(long[] history, int length, int horizon) {
+      long[] out = new long[horizon];
+      int size = Math.min(SMA_WINDOW, length);
+      if (size == 0) {
+        return out;
+      }
+      long[] window = new long[SMA_WINDOW];
+      long sum = 0;
+      for (int i = 0; i < size; i++) {
+        window[i] = history[length - size + i];
+        sum += window[i];
+      }
+      for (int k = 0, oldest = 0; k < horizon; k++) {
+        long avg = divideHalfUp(sum, size);
+        out[k] = avg;
+        if (size < SMA_WINDOW) {
+          window[size++] = avg;
+          sum += avg;
+        } else {
+          sum += avg - window[oldest];
+          window[oldest] = avg;
+          oldest = (oldest + 1) % SMA_WINDOW;
+        }
+      }
+      return out;
+    }
+  },
+
+  /** Exponentially weighted average; recent months weigh most and the projection is flat. */
+  EWMA(1) {
+    @Override
+    public long[] forecast(long[] history, int length, int horizon) {
+      long[] out = new long[horizon];
+      if (length == 0) {
+        return out;
+      }
+      double level = history[0];
+      for (int i = 1; i < length; i++) {
+        level = EWMA_ALPHA * history[i] + (1 - EWMA_ALPHA) * level;
+      }
+      Arrays.fill(out, Math.round(level));
+      return out;
+    }
+  },
+
+  /**
+   * Additive Holt-Winters with a yearly season. Needs two full years to initialise; shorter
+   * histories are projected by {@link #LINEAR}.
+   */
+  HOLT_WINTERS(24) {
+    @Override
+    public long[] forecast(long[] history, int length, int horizon) {
+      if (length < 2 * SEASON) {
+        return LINEAR.forecast(history, length, horizon);
+      }
+      // The first year's mean is the level at its middle month; detrend the seasonal offsets
+      // around it and start the level at the year's last month, where the updates begin.
+      double middle = (SEASON - 1) / 2.0;
+      double firstYear = mean(history, 0, SEASON);
+      double trend = (mean(history, SEASON, 2 * SEASON) - firstYear) / SEASON;
+      double[] season = new double[SEASON];
+      for (int i = 0; i < SEASON; i++) {
+        season[i] = history[i] - (firstYear + (i - middle) * trend);
+      }
+      double level = firstYear + middle * trend;
+      for (int t = SEASON; t < length; t++) {
+        double s = season[t % SEASON];
+        double previous = level;
+        level = HW_ALPHA * (history[t] - s) + (1 - HW_ALPHA) * (level + trend);
+        trend = HW_BETA * (level - previous) + (1 - HW_BETA) * trend;
+        season[t % SEASON] = HW_GAMMA * (history[t] - level) + (1 - HW_GAMMA) * s;
+      }
+      long[] out = new long[horizon];
+      for (int k = 1; k <= horizon; k++) {
+        out[k - 1] = floorAtZero(level + k * trend + season[(length + k - 1) % SEASON]);
+      }
+      return out;
+    }
+  },
+
+  /** Least-squares line through the history, extended. */
+  LINEAR(2) {
+    @Override
+    public long[] forecast(long[] history, int length, int horizon) {
+      if (length < 2) {
+        return EWMA.forecast(history, length, horizon);
+      }
+      double meanX = (length - 1) / 2.0;
+      double meanY = mean(history, 0, length);
+      double covariance = 0;
+      double variance = 0;
+      for (int i = 0; i < length; i++) {
+        double dx = i - meanX;
+        covariance += dx * (history[i] - meanY);
+        variance += dx * dx;
+      }
+      double slope = covariance / variance;
+      long[] out = new long[horizon];
+      for (int k = 1; k <= horizon; k++) {
+        out[k - 1] = floorAtZero(meanY + slope * (length - 1 + k - meanX));
+      }
+      return out;
+    }
+  };
+
+  private static final int SMA_WINDOW = 3;
+  private static final double EWMA_ALPHA = 0.5;
+  private static final int SEASON = 12;
+  private static final double HW_ALPHA = 0.3;
+  private static final double HW_BETA = 0.1;
+  private static final double HW_GAMMA = 0.3;
+
+  private final int minHistory;
+
+  ForecastModel(int minHistory) {
+    this.minHistory = minHistory;
+  }
+
+  /** Projects the {@code horizon} months after {@code history[0..length)}. */
+  public abstract long[] forecast(long[] history, int length, int horizon);
+
+  /** Months of history the model needs before its own method applies; backtests start there. */
+  public int minHistory() {
+    return minHistory;
+  }
+
+  private static double mean(long[] values, int from, int to) {
+    long sum = 0;
+    for (int i = from; i < to; i++) {
+      sum += values[i];
+    }
+    return (double) sum / (to - from);
+  }
+
+  /** {@code dividend / divisor} rounded like {@code BigDecimal} HALF_UP; {@code divisor} is positive. */
+  static long divideHalfUp(long dividend, long divisor) {
+    long quotient = dividend / divisor;
+    return 2 * Math.abs(dividend % divisor) >= divisor ? quotient + Long.signum(dividend) : quotient;
+  }
+
+  private static long floorAtZero(double value) {
+    return Math.max(0, Math.round(value));
+  }
+}
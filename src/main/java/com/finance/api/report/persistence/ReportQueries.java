@@ -6,63 +6,129 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 
 @Repository
 public class ReportQueries {
 
-  @PersistenceContext
-  private EntityManager em;
-
-  public SummaryRow querySummary(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
-    String sql =
-        """
-        select
-          coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
-          coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
+  /**
+   * Amounts in the window: monthly rollups (V17) for the whole months in
+   * {@code [:wholeFrom, :wholeTo)}, raw live and archived records only for the partial months
+   * at either edge, and the pending occurrences of recurrence rules (V14), which are generated
+   * rather than stored. The filters are repeated in each branch so each keeps its indexes.
+   * Archived records (V16) are only read when the window starts before the archive horizon;
+   * otherwise that branch is a one-time false filter and never touches the table.
+   */
+  private static final String LEDGER =
+      """
+      (
+        select m.kind, m.total as amount, m.month as due_date, m.category_id
+        from record_monthly_rollup m
+        where m.user_id = :userId
+          and m.month >= :wholeFrom and m.month < :wholeTo
+          and (:catsEmpty or m.category_id = any(:cats))
+        union all
+        select r.kind, r.amount, r.due_date, r.category_id
         from record r
         where r.user_id = :userId
           and r.status <> 'CANCELED'
-          and r.due_date between :from and :to
+          and (r.due_date >= :from and r.due_date < :wholeFrom or r.due_date >= :wholeTo and r.due_date <= :to)
           and (:catsEmpty or r.category_id = any(:cats))
-        """;
+        union all
+        select a.kind, a.amount, a.due_date, a.category_id
+        from record_archive a
+        where a.user_id = :userId
+          and a.status <> 'CANCELED'
+          and (a.due_date >= :from and a.due_date < :wholeFrom or a.due_date >= :wholeTo and a.due_date <= :to)
+          and (:catsEmpty or a.category_id = any(:cats))
+          and :from < (select h.archived_before from record_archive_horizon h)
+        union all
+        select o.kind, o.amount, o.occurrence_date, o.category_id
+        from recurrence_occurrences(:userId, :from, :to) o
+        where o.status <> 'CANCELED'
+          and (:catsEmpty or o.category_id = any(:cats))
+      )""";
 
-    var q = em.createNativeQuery(sql, "summary-mapping");
-    q.setParameter("userId", userId);
-    q.setParameter("from", Date.valueOf(from));
-    q.setParameter("to", Date.valueOf(to));
-    q.setParameter("catsEmpty", categoryIds == null || categoryIds.isEmpty());
-    q.setParameter("cats", categoryIds == null || categoryIds.isEmpty() ? new UUID[]{} : categoryIds.toArray(UUID[]::new));
+  /** Income and expense per category over {@link #LEDGER}; bound like it. */
+  private static final String CATEGORY_TOTALS =
+      """
+      select r.category_id,
+             coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
+             coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
+      from %s r
+      group by r.category_id
+      """.formatted(LEDGER);
+
+  /** Sort properties accepted by {@link #queryByCategory} and the SQL they order by. */
+  private static final Map<String, String> CATEGORY_ORDER = Map.of(
+      "name", "name",
+      "income", "g.income",
+      "expense", "g.expense",
+      "net", "g.income - g.expense");
+
+  /** Income and expense totals over {@link #LEDGER}. */
+  static final String SUMMARY =
+      """
+      select
+        coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
+        coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
+      from %s r
+      """.formatted(LEDGER);
+
+  /** Income and expense per month over {@link #LEDGER}. */
+  static final String CASHFLOW =
+      """
+      select date_trunc('month', r.due_date) as m,
+             coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
+             coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
+      from %s r
+      group by 1
+      order by 1
+      """.formatted(LEDGER);
+
+  /** {@link #SUMMARY}, {@link #CASHFLOW} and category totals in one pass; see {@link #queryDashboard}. */
+  static final String DASHBOARD =
+      """
+      select g.grp, g.m, g.category_id,
+             case when g.grp = 2 then coalesce(c.name,'Uncategorized') end as name,
+             g.income, g.expense
+      from (
+        select grouping(date_trunc('month', r.due_date), r.category_id) as grp,
+               date_trunc('month', r.due_date) as m,
+               r.category_id,
+               coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
+               coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
+        from %s r
+        group by grouping sets ((), (date_trunc('month', r.due_date)), (r.category_id))
+      ) g
+      left join category c on g.grp = 2 and c.id = g.category_id
+      order by g.grp, g.m, name
+      """.formatted(LEDGER);
+
+  @PersistenceContext
+  private EntityManager em;
+
+  public SummaryRow querySummary(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+    var q = em.createNativeQuery(SUMMARY, "summary-mapping");
+    bind(q, userId, from, to, categoryIds);
     Object[] row = (Object[]) q.getSingleResult();
     return new SummaryRow((BigDecimal) row[0], (BigDecimal) row[1]);
   }
 
   public List<CashflowRow> queryCashflow(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
-    String sql =
-        """
-        select date_trunc('month', r.due_date) as m,
-               coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
-               coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
-        from record r
-        where r.user_id = :userId
-          and r.status <> 'CANCELED'
-          and r.due_date between :from and :to
-          and (:catsEmpty or r.category_id = any(:cats))
-        group by 1
-        order by 1
-        """;
-
-    var q = em.createNativeQuery(sql);
-    q.setParameter("userId", userId);
-    q.setParameter("from", Date.valueOf(from));
-    q.setParameter("to", Date.valueOf(to));
-    q.setParameter("catsEmpty", categoryIds == null || categoryIds.isEmpty());
-    q.setParameter("cats", categoryIds == null || categoryIds.isEmpty() ? new UUID[]{} : categoryIds.toArray(UUID[]::new));
+    var q = em.createNativeQuery(CASHFLOW);
+    bind(q, userId, from, to, categoryIds);
 
     List<Object[]> rows = q.getResultList();
     List<CashflowRow> out = new ArrayList<>();
@@ -74,42 +140,114 @@ public class ReportQueries {
     return out;
   }
 
-  public List<CategoryRow> queryByCategory(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
-    String sql =
-        """
-        select r.category_id as id,
-               coalesce(c.name,'Uncategorized') as name,
-               coalesce(sum(case when r.kind='INCOME'  then r.amount else 0 end),0) as income,
-               coalesce(sum(case when r.kind='EXPENSE' then r.amount else 0 end),0) as expense
-        from record r
-        left join category c on c.id = r.category_id
-        where r.user_id = :userId
-          and r.status <> 'CANCELED'
-          and r.due_date between :from and :to
-          and (:catsEmpty or r.category_id = any(:cats))
-        group by r.category_id, c.name
-        order by name
-        """;
-
-    var q = em.createNativeQuery(sql);
-    q.setParameter("userId", userId);
-    q.setParameter("from", Date.valueOf(from));
-    q.setParameter("to", Date.valueOf(to));
-    q.setParameter("catsEmpty", categoryIds == null || categoryIds.isEmpty());
-    q.setParameter("cats", categoryIds == null || categoryIds.isEmpty() ? new UUID[]{} : categoryIds.toArray(UUID[]::new));
+  /**
+   * One page of per-category totals, sorted by the whitelisted {@link #CATEGORY_ORDER} keys
+   * (other properties are ignored) and then by name and id, so pages are stable. The total
+   * comes from a window count over the grouped rows; only a page past the end needs a second
+   * query to learn it.
+   */
+  public Page<CategoryRow> queryByCategory(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds,
+      Pageable pageable) {
+    var q = em.createNativeQuery(byCategory(pageable.getSort()));
+    bind(q, userId, from, to, categoryIds);
+    q.setParameter("limit", pageable.getPageSize());
+    q.setParameter("offset", pageable.getOffset());
 
     List<Object[]> rows = q.getResultList();
     List<CategoryRow> out = new ArrayList<>();
+    long total = 0;
     for (Object[] r : rows) {
-      UUID id = (UUID) r[0];            
+      UUID id = (UUID) r[0];
       String name = (String) r[1];
       out.add(new CategoryRow(id, name, (BigDecimal) r[2], (BigDecimal) r[3]));
+      total = ((Number) r[4]).longValue();
     }
-    return out;
+    if (out.isEmpty() && pageable.getOffset() > 0) {
+      var count = em.createNativeQuery("select count(*) from (%s) g".formatted(CATEGORY_TOTALS));
+      bind(count, userId, from, to, categoryIds);
+      total = ((Number) count.getSingleResult()).longValue();
+    }
+    return new PageImpl<>(out, pageable, total);
+  }
+
+  /** A page of {@link #CATEGORY_TOTALS} with names, in {@code sort} order; binds :limit and :offset too. */
+  static String byCategory(Sort sort) {
+    return """
+        select g.category_id as id,
+               coalesce(c.name,'Uncategorized') as name,
+               g.income,
+               g.expense,
+               count(*) over() as total
+        from (%s) g
+        left join category c on c.id = g.category_id
+        order by %s
+        limit :limit offset :offset
+        """.formatted(CATEGORY_TOTALS, orderBy(sort));
   }
 
+  private static String orderBy(Sort sort) {
+    var terms = new ArrayList<String>();
+    for (Sort.Order o : sort) {
+      String column = CATEGORY_ORDER.get(o.getProperty());
+      if (column != null) {
+        terms.add(column + (o.isDescending() ? " desc" : " asc"));
+      }
+    }
+    terms.add("name");
+    terms.add("g.category_id nulls first");
+    return String.join(", ", terms);
+  }
+
+  /**
+   * Totals, monthly series and per-category totals from one pass over the ledger. The grouping
+   * sets yield one grand-total row (always present), one row per month and one per category;
+   * names are joined onto the category rows after aggregation.
+   */
+  public DashboardRows queryDashboard(UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+    var q = em.createNativeQuery(DASHBOARD);
+    bind(q, userId, from, to, categoryIds);
+
+    List<Object[]> rows = q.getResultList();
+    SummaryRow summary = new SummaryRow(BigDecimal.ZERO, BigDecimal.ZERO);
+    List<CashflowRow> months = new ArrayList<>();
+    List<CategoryRow> categories = new ArrayList<>();
+    for (Object[] r : rows) {
+      BigDecimal income = (BigDecimal) r[4];
+      BigDecimal expense = (BigDecimal) r[5];
+      // grouping() sets a bit for each column the row's set leaves out: month = 2, category = 1.
+      switch (((Number) r[0]).intValue()) {
+        case 3 -> summary = new SummaryRow(income, expense);
+        case 1 -> {
+          java.sql.Timestamp ts = (java.sql.Timestamp) r[1];
+          months.add(new CashflowRow(YearMonth.from(ts.toLocalDateTime().toLocalDate()), income, expense));
+        }
+        case 2 -> categories.add(new CategoryRow((UUID) r[2], (String) r[3], income, expense));
+        default -> throw new IllegalStateException("unexpected grouping " + r[0]);
+      }
+    }
+    return new DashboardRows(summary, months, categories);
+  }
+
+  /** Binds the {@link #LEDGER} parameters; whole months are those fully inside {@code [from, to]}. */
+  static void bind(Query q, UUID userId, LocalDate from, LocalDate to, List<UUID> categoryIds) {
+    LocalDate wholeFrom = from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+    LocalDate wholeTo = to.equals(YearMonth.from(to).atEndOfMonth()) ? to.plusDays(1) : to.withDayOfMonth(1);
+    if (!wholeFrom.isBefore(wholeTo)) {
+      // No whole month: the first raw range covers the window, the rollup and second range are empty.
+      wholeFrom = to.plusDays(1);
+      wholeTo = wholeFrom;
+    }
+    q.setParameter("userId", userId);
+    q.setParameter("from", Date.valueOf(from));
+    q.setParameter("to", Date.valueOf(to));
+    q.setParameter("wholeFrom", Date.valueOf(wholeFrom));
+    q.setParameter("wholeTo", Date.valueOf(wholeTo));
+    q.setParameter("catsEmpty", categoryIds == null || categoryIds.isEmpty());
+    q.setParameter("cats", categoryIds == null || categoryIds.isEmpty() ? new UUID[]{} : categoryIds.toArray(UUID[]::new));
+  }
 
   public record SummaryRow(BigDecimal income, BigDecimal expense) { }
   public record CashflowRow(YearMonth month, BigDecimal income, BigDecimal expense) { }
   public record CategoryRow(UUID id, String name, BigDecimal income, BigDecimal expense) { }
+  public record DashboardRows(SummaryRow summary, List<CashflowRow> months, List<CategoryRow> categories) { }
 }
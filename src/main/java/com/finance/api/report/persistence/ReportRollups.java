@@ -0,0 +1,39 @@
+package com.finance.api.report.persistence;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Verification and rebuild of {@code record_monthly_rollup} (V17). */
+@Repository
+public class ReportRollups {
+
+  private final JdbcTemplate jdbc;
+
+  public ReportRollups(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Up to {@code limit} user ids after {@code after} (null for the first), in id order. */
+  public List<UUID> usersAfter(UUID after, int limit) {
+    if (after == null) {
+      return jdbc.queryForList("select id from app_user order by id limit ?", UUID.class, limit);
+    }
+    return jdbc.queryForList("select id from app_user where id > ? order by id limit ?", UUID.class, after, limit);
+  }
+
+  /** The users among {@code userIds} whose rollups no longer match their records. */
+  public List<UUID> mismatched(List<UUID> userIds) {
+    return jdbc.query(con -> {
+      var ps = con.prepareStatement("select * from record_rollup_mismatches(?)");
+      ps.setArray(1, con.createArrayOf("uuid", userIds.toArray()));
+      return ps;
+    }, (rs, i) -> rs.getObject(1, UUID.class));
+  }
+
+  public void rebuild(UUID userId) {
+    jdbc.query("select record_rollup_rebuild(?)", rs -> null, userId);
+  }
+}
@@ -19,7 +19,10 @@ import com.finance.api.common.api.PageResponse;
 import com.finance.api.report.application.ReportService;
 import com.finance.api.report.domain.CashflowReport;
 import com.finance.api.report.domain.CategoryReportItem;
+import com.finance.api.report.domain.DashboardReport;
+import com.finance.api.report.domain.ForecastBacktest;
 import com.finance.api.report.domain.ForecastItem;
+import com.finance.api.report.domain.ForecastModel;
 import com.finance.api.report.domain.SummaryReport;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -87,7 +90,7 @@ public class ReportController {
         return ApiResponse.ok(out);
     }
 
-    @Operation(summary = "Totals by category within a period (pageable)")
+    @Operation(summary = "Totals by category within a period (pageable; sort by name, income, expense or net)")
     @GetMapping("/by-category")
     public ApiResponse<PageResponse<CategoryReportItem>> byCategory(
             @Parameter(description = "Start date (defaults to 90 days ago)",
@@ -107,7 +110,26 @@ public class ReportController {
         return ApiResponse.ok(page);
     }
 
-    @Operation(summary = "Naive forecast using 3-month moving average")
+    @Operation(summary = "Summary, monthly cashflow and category totals for a period in one call")
+    @GetMapping("/dashboard")
+    public ApiResponse<DashboardReport> dashboard(
+            @Parameter(description = "Start date (defaults to 90 days ago)",
+                    schema = @Schema(type = "string", format = "date"))
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date (defaults to today)",
+                    schema = @Schema(type = "string", format = "date"))
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Filter by category IDs (repeat param)",
+                    array = @ArraySchema(schema = @Schema(format = "uuid")))
+            @RequestParam(required = false) List<UUID> categoryIds,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        var out = reports.dashboard(userId, defFrom(from), defTo(to), categoryIds);
+        return ApiResponse.ok(out);
+    }
+
+    @Operation(summary = "Forecast of monthly income and expense")
     @GetMapping("/forecast")
     public ApiResponse<List<ForecastItem>> forecast(
             @Parameter(description = "Start date (defaults to 90 days ago)",
@@ -123,10 +145,32 @@ public class ReportController {
                     schema = @Schema(minimum = "1", maximum = "24", defaultValue = "3"),
                     example = "3")
             @RequestParam(defaultValue = "3") int monthsAhead,
+            @Parameter(description = "SMA (3-month moving average), EWMA, HOLT_WINTERS (yearly season; "
+                    + "needs 24 months, otherwise LINEAR) or LINEAR (trend)")
+            @RequestParam(defaultValue = "SMA") ForecastModel model,
+            @Parameter(hidden = true) Authentication auth
+    ) {
+        UUID userId = (UUID) auth.getPrincipal();
+        var out = reports.forecast(userId, defFrom(from), defTo(to), categoryIds, monthsAhead, model);
+        return ApiResponse.ok(out);
+    }
+
+    @Operation(summary = "One-month-ahead error of each forecast model over the period")
+    @GetMapping("/forecast/backtest")
+    public ApiResponse<List<ForecastBacktest>> backtest(
+            @Parameter(description = "Start date (defaults to 90 days ago)",
+                    schema = @Schema(type = "string", format = "date"))
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date (defaults to today)",
+                    schema = @Schema(type = "string", format = "date"))
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Filter by category IDs (repeat param)",
+                    array = @ArraySchema(schema = @Schema(format = "uuid")))
+            @RequestParam(required = false) List<UUID> categoryIds,
             @Parameter(hidden = true) Authentication auth
     ) {
         UUID userId = (UUID) auth.getPrincipal();
-        var out = reports.forecast(userId, defFrom(from), defTo(to), categoryIds, monthsAhead);
+        var out = reports.backtest(userId, defFrom(from), defTo(to), categoryIds);
         return ApiResponse.ok(out);
     }
 }
@@ -0,0 +1,32 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Word search: expression index matched by record_matches_text once the function is inlined.
+-- description is VARCHAR and the function takes TEXT, so the inlined call casts it; the index
+-- expression is written the same way or the planner cannot match it.
+CREATE INDEX IF NOT EXISTS idx_record_description_tsv
+  ON record USING GIN (to_tsvector('simple', coalesce(description::text, '')));
+
+-- Substring search (ILIKE '%q%') on partial words and typos in the middle of a word.
+CREATE INDEX IF NOT EXISTS idx_record_description_trgm
+  ON record USING GIN (description gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_record_user_amount ON record (user_id, amount);
+
+-- Plain single-expression SQL functions, non-strict and immutable, so the planner inlines
+-- them and the GIN indexes above apply. Called from the JPA Criteria API, which cannot
+-- express the @@ operator directly.
+CREATE OR REPLACE FUNCTION record_matches_text(description TEXT, q TEXT)
+RETURNS BOOLEAN
+LANGUAGE SQL IMMUTABLE PARALLEL SAFE
+AS $$
+  SELECT to_tsvector('simple', coalesce(description, '')) @@ websearch_to_tsquery('simple', q)
+      OR description ILIKE '%' || replace(replace(replace(q, '\', '\\'), '%', '\%'), '_', '\_') || '%'
+$$;
+
+CREATE OR REPLACE FUNCTION record_text_rank(description TEXT, q TEXT)
+RETURNS REAL
+LANGUAGE SQL IMMUTABLE PARALLEL SAFE
+AS $$
+  SELECT ts_rank(to_tsvector('simple', coalesce(description, '')), websearch_to_tsquery('simple', q))
+       + similarity(coalesce(description, ''), q)
+$$;
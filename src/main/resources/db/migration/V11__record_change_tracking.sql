@@ -0,0 +1,76 @@
+-- Delta sync (GET /records/changes): every insert/update stamps the row with a change
+-- sequence and every delete leaves a tombstone with one.
+--
+-- The sequence is global, but each writer first takes a per-user transaction-scoped advisory
+-- lock, so a user's changes commit in sequence order and a reader that has seen N never
+-- later finds a committed change below N for that user.
+CREATE SEQUENCE IF NOT EXISTS record_change_seq;
+
+ALTER TABLE record ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+UPDATE record SET change_seq = nextval('record_change_seq') WHERE change_seq IS NULL;
+ALTER TABLE record ALTER COLUMN change_seq SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_record_user_change_seq ON record (user_id, change_seq);
+
+-- No foreign key to app_user: deleting a user cascades to record, whose delete trigger would
+-- then insert tombstones for a user that no longer exists. Those rows expire with the rest.
+CREATE TABLE IF NOT EXISTS record_tombstone (
+  user_id     UUID NOT NULL,
+  record_id   UUID NOT NULL,
+  change_seq  BIGINT NOT NULL,
+  deleted_at  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  CONSTRAINT pk_record_tombstone PRIMARY KEY (user_id, record_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_record_tombstone_user_change_seq ON record_tombstone (user_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_record_tombstone_deleted_at ON record_tombstone (deleted_at);
+
+-- Highest tombstone sequence purged so far; clients syncing from below it must start over.
+CREATE TABLE IF NOT EXISTS record_sync_horizon (
+  id              BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+  purged_through  BIGINT NOT NULL
+);
+INSERT INTO record_sync_horizon (purged_through) VALUES (0) ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION record_next_change_seq(p_user_id UUID)
+RETURNS BIGINT
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  PERFORM pg_advisory_xact_lock(hashtext('record_change_seq'), hashtext(p_user_id::text));
+  RETURN nextval('record_change_seq');
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION record_stamp_change()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  NEW.change_seq := record_next_change_seq(NEW.user_id);
+  RETURN NEW;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION record_write_tombstone()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  INSERT INTO record_tombstone (user_id, record_id, change_seq)
+  VALUES (OLD.user_id, OLD.id, record_next_change_seq(OLD.user_id))
+  ON CONFLICT (user_id, record_id) DO UPDATE
+    SET change_seq = excluded.change_seq, deleted_at = excluded.deleted_at;
+  RETURN OLD;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_record_stamp_change ON record;
+CREATE TRIGGER trg_record_stamp_change
+  BEFORE INSERT OR UPDATE ON record
+  FOR EACH ROW EXECUTE FUNCTION record_stamp_change();
+
+DROP TRIGGER IF EXISTS trg_record_write_tombstone ON record;
+CREATE TRIGGER trg_record_write_tombstone
+  AFTER DELETE ON record
+  FOR EACH ROW EXECUTE FUNCTION record_write_tombstone();
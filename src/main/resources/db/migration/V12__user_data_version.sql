@@ -0,0 +1,6 @@
+-- Bumped by every write to a user's records or categories; conditional GETs compare ETags
+-- derived from it instead of re-running list and report queries.
+CREATE TABLE IF NOT EXISTS user_data_version (
+  user_id  UUID PRIMARY KEY REFERENCES app_user(id) ON DELETE CASCADE,
+  version  BIGINT NOT NULL
+);
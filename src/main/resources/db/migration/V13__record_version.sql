@@ -0,0 +1,2 @@
+-- Optimistic concurrency: single-record writes check and bump this in the same UPDATE.
+ALTER TABLE record ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
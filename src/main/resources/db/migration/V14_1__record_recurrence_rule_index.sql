@@ -0,0 +1,8 @@
+-- Serves ON DELETE SET NULL when a recurrence rule is deleted. Built here, without blocking
+-- writes, so that V15 adopts it when it attaches the old table as record_legacy instead of
+-- building it while holding ACCESS EXCLUSIVE on record.
+-- CONCURRENTLY cannot run inside a transaction; Flyway detects that and runs this script
+-- without one, so keep it the only statement here. An interrupted build leaves an INVALID
+-- index that IF NOT EXISTS would keep: drop it before running the migration again.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_record_recurrence_rule
+  ON record (recurrence_rule_id) WHERE recurrence_rule_id IS NOT NULL;
@@ -0,0 +1,117 @@
+-- Recurring records (rent, salary, card installments) are stored once as a rule. Occurrences
+-- inside a requested window are generated on read by recurrence_occurrences(); a record row
+-- exists only once an occurrence is confirmed or edited (recurrence_rule_id + occurrence_date).
+CREATE TABLE IF NOT EXISTS recurrence_rule (
+  id                UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  user_id           UUID NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+  category_id       UUID REFERENCES category(id) ON DELETE SET NULL,
+  kind              VARCHAR(16) NOT NULL,
+  status            VARCHAR(16) NOT NULL,
+  amount            NUMERIC(14,2) NOT NULL,
+  description       VARCHAR(255),
+  frequency         VARCHAR(16) NOT NULL,
+  interval_count    INT NOT NULL DEFAULT 1,
+  start_date        DATE NOT NULL,
+  end_date          DATE,
+  occurrence_count  INT,
+  created_at        TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  updated_at        TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  CONSTRAINT ck_recurrence_frequency CHECK (frequency IN ('WEEKLY', 'MONTHLY', 'YEARLY')),
+  CONSTRAINT ck_recurrence_interval CHECK (interval_count >= 1),
+  CONSTRAINT ck_recurrence_count CHECK (occurrence_count IS NULL OR occurrence_count >= 1),
+  CONSTRAINT ck_recurrence_end CHECK (end_date IS NULL OR end_date >= start_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_recurrence_rule_user_start ON recurrence_rule (user_id, start_date);
+
+-- Occurrences removed by the user without ever becoming a record.
+CREATE TABLE IF NOT EXISTS recurrence_skip (
+  rule_id          UUID NOT NULL REFERENCES recurrence_rule(id) ON DELETE CASCADE,
+  occurrence_date  DATE NOT NULL,
+  CONSTRAINT pk_recurrence_skip PRIMARY KEY (rule_id, occurrence_date)
+);
+
+ALTER TABLE record
+  ADD COLUMN IF NOT EXISTS recurrence_rule_id UUID REFERENCES recurrence_rule(id) ON DELETE SET NULL,
+  ADD COLUMN IF NOT EXISTS occurrence_date DATE;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_record_recurrence_occurrence
+  ON record (recurrence_rule_id, occurrence_date) WHERE recurrence_rule_id IS NOT NULL;
+
+-- Pending occurrences of the user's rules between p_from and p_to (inclusive). Each date is
+-- computed from start_date (start + n * step), so month-end dates clamp without drifting, and
+-- generate_series only walks the steps that can fall inside the window.
+CREATE OR REPLACE FUNCTION recurrence_occurrences(p_user_id UUID, p_from DATE, p_to DATE)
+RETURNS TABLE (
+  rule_id          UUID,
+  occurrence_date  DATE,
+  occurrence_no    INT,
+  kind             VARCHAR,
+  status           VARCHAR,
+  amount           NUMERIC,
+  category_id      UUID,
+  description      VARCHAR
+)
+LANGUAGE SQL STABLE PARALLEL SAFE
+AS $$
+  SELECT r.id,
+         o.d,
+         o.n + 1,
+         r.kind,
+         r.status,
+         r.amount,
+         r.category_id,
+         CASE WHEN r.occurrence_count IS NULL THEN r.description
+              ELSE concat_ws(' ', r.description, '(' || (o.n + 1) || '/' || r.occurrence_count || ')')
+         END::VARCHAR
+  FROM recurrence_rule r
+  CROSS JOIN LATERAL (
+    SELECT CASE r.frequency WHEN 'WEEKLY' THEN 7 * r.interval_count ELSE 0 END AS days_per_step,
+           CASE r.frequency WHEN 'MONTHLY' THEN r.interval_count
+                            WHEN 'YEARLY' THEN 12 * r.interval_count ELSE 0 END AS months_per_step
+  ) s
+  CROSS JOIN LATERAL (
+    SELECT CASE WHEN s.days_per_step > 0 THEN (p_from - r.start_date) / s.days_per_step
+                ELSE ((extract(year FROM p_from) - extract(year FROM r.start_date)) * 12
+                      + extract(month FROM p_from) - extract(month FROM r.start_date))::INT / s.months_per_step
+           END AS first_step,
+           CASE WHEN s.days_per_step > 0 THEN (p_to - r.start_date) / s.days_per_step
+                ELSE ((extract(year FROM p_to) - extract(year FROM r.start_date)) * 12
+                      + extract(month FROM p_to) - extract(month FROM r.start_date))::INT / s.months_per_step
+           END AS last_step
+  ) b
+  CROSS JOIN LATERAL (
+    SELECT n,
+           (r.start_date + n * s.days_per_step + make_interval(months => n * s.months_per_step))::DATE AS d
+    FROM generate_series(greatest(b.first_step - 1, 0),
+                         least(b.last_step + 1, coalesce(r.occurrence_count, 2147483647) - 1)) AS n
+  ) o
+  WHERE r.user_id = p_user_id
+    AND r.start_date <= p_to
+    AND (r.end_date IS NULL OR r.end_date >= p_from)
+    AND o.d BETWEEN p_from AND p_to
+    AND (r.end_date IS NULL OR o.d <= r.end_date)
+    AND NOT EXISTS (
+      SELECT 1 FROM record m WHERE m.recurrence_rule_id = r.id AND m.occurrence_date = o.d)
+    AND NOT EXISTS (
+      SELECT 1 FROM recurrence_skip k WHERE k.rule_id = r.id AND k.occurrence_date = o.d)
+$$;
+
+-- Deleting a materialised occurrence must not bring the generated one back.
+CREATE OR REPLACE FUNCTION recurrence_skip_deleted_occurrence() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  INSERT INTO recurrence_skip (rule_id, occurrence_date)
+  SELECT DISTINCT o.recurrence_rule_id, o.occurrence_date
+  FROM old_rows o
+  WHERE o.recurrence_rule_id IS NOT NULL AND o.occurrence_date IS NOT NULL
+  ON CONFLICT DO NOTHING;
+  RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_record_skip_deleted_occurrence ON record;
+CREATE TRIGGER trg_record_skip_deleted_occurrence
+  AFTER DELETE ON record
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION recurrence_skip_deleted_occurrence();
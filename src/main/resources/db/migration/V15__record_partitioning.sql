@@ -0,0 +1,350 @@
+-- Declarative range partitioning of record by due_date: one partition per month, plus
+-- record_legacy for everything before the conversion and record_p_default for dates beyond
+-- the partitions created so far. Filters on due_date (RecordSpecifications, ReportQueries,
+-- the keyset cursor) prune to the months they touch.
+--
+-- The existing table is attached as record_legacy instead of being copied, and its indexes
+-- are adopted as partitions of the new partitioned ones; idx_record_recurrence_rule is built
+-- beforehand by V14_1 so that it is among them. The conversion still reads the whole table
+-- twice: to build the (id, due_date) primary key and to validate record_legacy_bound, which
+-- lets ATTACH skip its own scan. Rows dated from the current month on are moved out through
+-- the due_date index. All of it runs in the migration's transaction, holding ACCESS EXCLUSIVE
+-- on the table from the first ALTER until commit, so reads wait as well as writes: size the
+-- maintenance window to those two passes. record_split_legacy() then moves the newest month
+-- into a monthly partition per call, at a time chosen by the operator.
+
+-- The primary key of a partitioned table must contain the partition key.
+DROP TRIGGER IF EXISTS trg_record_stamp_change ON record;
+DROP TRIGGER IF EXISTS trg_record_write_tombstone ON record;
+DROP TRIGGER IF EXISTS trg_record_skip_deleted_occurrence ON record;
+DROP FUNCTION IF EXISTS recurrence_skip_deleted_occurrence();
+
+ALTER TABLE record RENAME TO record_legacy;
+ALTER TABLE record_legacy DROP CONSTRAINT record_pkey;
+
+-- Redundant left prefixes of other indexes, and a unique index that cannot span partitions
+-- (recurrence_resolved below takes over its job).
+DROP INDEX IF EXISTS idx_record_user_id;
+DROP INDEX IF EXISTS idx_record_user_due_date;
+DROP INDEX IF EXISTS uk_record_recurrence_occurrence;
+
+-- Free the index names for the partitioned indexes; ATTACH adopts these as their partitions.
+DO $$
+DECLARE
+  i RECORD;
+BEGIN
+  FOR i IN SELECT indexname FROM pg_indexes
+           WHERE schemaname = current_schema() AND tablename = 'record_legacy' LOOP
+    EXECUTE format('ALTER INDEX %I RENAME TO %I', i.indexname, left(i.indexname, 55) || '_legacy');
+  END LOOP;
+END;
+$$;
+
+ALTER TABLE record_legacy ADD CONSTRAINT record_legacy_pkey PRIMARY KEY (id, due_date);
+
+CREATE TABLE record (
+  id                  UUID NOT NULL DEFAULT gen_random_uuid(),
+  user_id             UUID NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+  category_id         UUID REFERENCES category(id) ON DELETE SET NULL,
+  kind                VARCHAR(16) NOT NULL,
+  status              VARCHAR(16) NOT NULL,
+  amount              NUMERIC(14,2) NOT NULL,
+  due_date            DATE NOT NULL,
+  paid_at             TIMESTAMPTZ,
+  description         VARCHAR(255),
+  created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  kind_id             UUID REFERENCES record_kind(id),
+  status_id           UUID REFERENCES record_status(id),
+  change_seq          BIGINT NOT NULL,
+  version             BIGINT NOT NULL DEFAULT 0,
+  recurrence_rule_id  UUID REFERENCES recurrence_rule(id) ON DELETE SET NULL,
+  occurrence_date     DATE,
+  CONSTRAINT pk_record PRIMARY KEY (id, due_date)
+) PARTITION BY RANGE (due_date);
+
+CREATE INDEX ix_record_due_date ON record (due_date);
+CREATE INDEX ix_record_status_id ON record (status_id);
+CREATE INDEX ix_record_kind_id ON record (kind_id);
+CREATE INDEX ix_record_category_id ON record (category_id);
+CREATE INDEX idx_record_user_status ON record (user_id, status);
+CREATE INDEX idx_record_user_kind ON record (user_id, kind);
+CREATE INDEX idx_record_user_category ON record (user_id, category_id);
+CREATE INDEX idx_record_user_due_date_id ON record (user_id, due_date, id);
+CREATE INDEX idx_record_user_amount ON record (user_id, amount);
+CREATE INDEX idx_record_user_change_seq ON record (user_id, change_seq);
+CREATE INDEX idx_record_report_due_date
+  ON record (user_id, due_date) INCLUDE (kind, amount, category_id)
+  WHERE status <> 'CANCELED';
+CREATE INDEX idx_record_report_category
+  ON record (user_id, category_id, due_date) INCLUDE (kind, amount)
+  WHERE status <> 'CANCELED';
+CREATE INDEX idx_record_description_tsv
+  ON record USING GIN (to_tsvector('simple', coalesce(description::text, '')));
+CREATE INDEX idx_record_description_trgm
+  ON record USING GIN (description gin_trgm_ops);
+-- Serves ON DELETE SET NULL when a recurrence rule is deleted.
+CREATE INDEX idx_record_recurrence_rule
+  ON record (recurrence_rule_id) WHERE recurrence_rule_id IS NOT NULL;
+
+CREATE TABLE record_p_default PARTITION OF record DEFAULT
+  WITH (autovacuum_vacuum_insert_scale_factor = 0.05, autovacuum_vacuum_scale_factor = 0.05);
+
+-- Upper bound of record_legacy; monthly partitions start here.
+CREATE TABLE IF NOT EXISTS record_partitioning (
+  id            BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+  legacy_until  DATE NOT NULL
+);
+INSERT INTO record_partitioning (legacy_until) VALUES (date_trunc('month', current_date)::DATE);
+
+-- ATTACH PARTITION scans the table to prove its rows fit the bounds, unless a valid CHECK
+-- constraint already implies them. record_add_bound adds that CHECK as <table>_bound, NOT
+-- VALID and then validated. That is free on a new, still empty partition; on record_legacy
+-- it is a full scan, only moved out of ATTACH, and it runs under the ACCESS EXCLUSIVE lock
+-- the caller already holds. Callers drop it once the partition is attached.
+CREATE OR REPLACE FUNCTION record_add_bound(p_table TEXT, p_from DATE, p_to DATE)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_check TEXT := CASE WHEN p_from IS NULL THEN format('due_date < %L', p_to)
+                       ELSE format('due_date >= %L AND due_date < %L', p_from, p_to) END;
+BEGIN
+  EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (%s) NOT VALID', p_table, p_table || '_bound', v_check);
+  EXECUTE format('ALTER TABLE %I VALIDATE CONSTRAINT %I', p_table, p_table || '_bound');
+END;
+$$;
+
+-- Creates the partition for p_month unless it exists or is still covered by record_legacy.
+-- Rows that already landed in record_p_default for that month move into it.
+CREATE OR REPLACE FUNCTION record_ensure_partition(p_month DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_from DATE := date_trunc('month', p_month)::DATE;
+  v_to   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+  v_name TEXT := 'record_p' || to_char(p_month, 'YYYYMM');
+BEGIN
+  IF to_regclass(v_name) IS NOT NULL OR v_from < (SELECT legacy_until FROM record_partitioning) THEN
+    RETURN FALSE;
+  END IF;
+
+  EXECUTE format('CREATE TABLE %I (LIKE record INCLUDING DEFAULTS) WITH '
+                 '(autovacuum_vacuum_insert_scale_factor = 0.05, autovacuum_vacuum_scale_factor = 0.05)', v_name);
+  PERFORM record_add_bound(v_name, v_from, v_to);
+  PERFORM set_config('app.record_maintenance', 'on', true);
+  EXECUTE format('WITH moved AS (DELETE FROM record_p_default WHERE due_date >= $1 AND due_date < $2 RETURNING *) '
+                 'INSERT INTO %I SELECT * FROM moved', v_name) USING v_from, v_to;
+  PERFORM set_config('app.record_maintenance', 'off', true);
+  EXECUTE format('ALTER TABLE record ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_from, v_to);
+  EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_name, v_name || '_bound');
+  RETURN TRUE;
+END;
+$$;
+
+-- Monthly partitions from the end of record_legacy up to p_months_ahead months from now.
+-- Called on a schedule by the application; safe to run from several nodes at once.
+CREATE OR REPLACE FUNCTION record_ensure_partitions(p_months_ahead INT)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_month DATE;
+  v_created INT := 0;
+BEGIN
+  PERFORM pg_advisory_xact_lock(hashtext('record_partitions'));
+  FOR v_month IN
+    SELECT generate_series((SELECT legacy_until FROM record_partitioning),
+                           date_trunc('month', current_date) + make_interval(months => p_months_ahead),
+                           INTERVAL '1 month')::DATE
+  LOOP
+    IF record_ensure_partition(v_month) THEN
+      v_created := v_created + 1;
+    END IF;
+  END LOOP;
+  RETURN v_created;
+END;
+$$;
+
+-- Moves the newest month of record_legacy into its own partition and returns the new
+-- legacy bound, or NULL once record_legacy is empty. The month is moved through the due_date
+-- index, but validating the new bound reads all of the remaining record_legacy on every call,
+-- and the DETACH holds ACCESS EXCLUSIVE on record until the call commits, so every query on
+-- record waits for that scan. Run it off-peak: SELECT record_split_legacy(); repeatedly, one
+-- call per transaction.
+CREATE OR REPLACE FUNCTION record_split_legacy()
+RETURNS DATE
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  v_to   DATE;
+  v_from DATE;
+  v_name TEXT;
+BEGIN
+  PERFORM pg_advisory_xact_lock(hashtext('record_partitions'));
+  IF NOT EXISTS (SELECT 1 FROM record_legacy) THEN
+    RETURN NULL;
+  END IF;
+  SELECT legacy_until INTO v_to FROM record_partitioning FOR UPDATE;
+  v_from := (v_to - INTERVAL '1 month')::DATE;
+  v_name := 'record_p' || to_char(v_from, 'YYYYMM');
+
+  PERFORM set_config('app.record_maintenance', 'on', true);
+  ALTER TABLE record DETACH PARTITION record_legacy;
+  EXECUTE format('CREATE TABLE %I (LIKE record INCLUDING DEFAULTS) WITH '
+                 '(autovacuum_vacuum_insert_scale_factor = 0.05, autovacuum_vacuum_scale_factor = 0.05)', v_name);
+  PERFORM record_add_bound(v_name, v_from, v_to);
+  EXECUTE format(
+      'WITH moved AS (DELETE FROM record_legacy WHERE due_date >= $1 '
+      '  RETURNING id, user_id, category_id, kind, status, amount, due_date, paid_at, description, created_at,'
+      '            updated_at, kind_id, status_id, change_seq, version, recurrence_rule_id, occurrence_date) '
+      'INSERT INTO %I (id, user_id, category_id, kind, status, amount, due_date, paid_at, description, created_at,'
+      '                updated_at, kind_id, status_id, change_seq, version, recurrence_rule_id, occurrence_date) '
+      'SELECT * FROM moved', v_name) USING v_from;
+  PERFORM set_config('app.record_maintenance', 'off', true);
+
+  PERFORM record_add_bound('record_legacy', NULL, v_from);
+  EXECUTE format('ALTER TABLE record ATTACH PARTITION record_legacy FOR VALUES FROM (MINVALUE) TO (%L)', v_from);
+  EXECUTE format('ALTER TABLE record ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_from, v_to);
+  ALTER TABLE record_legacy DROP CONSTRAINT record_legacy_bound;
+  EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_name, v_name || '_bound');
+  UPDATE record_partitioning SET legacy_until = v_from;
+  RETURN v_from;
+END;
+$$;
+
+SELECT record_ensure_partitions(3);
+
+-- Rows already dated from this month on leave record_legacy before it is bounded.
+INSERT INTO record (id, user_id, category_id, kind, status, amount, due_date, paid_at, description, created_at,
+                    updated_at, kind_id, status_id, change_seq, version, recurrence_rule_id, occurrence_date)
+SELECT id, user_id, category_id, kind, status, amount, due_date, paid_at, description, created_at,
+       updated_at, kind_id, status_id, change_seq, version, recurrence_rule_id, occurrence_date
+FROM record_legacy
+WHERE due_date >= (SELECT legacy_until FROM record_partitioning);
+
+DELETE FROM record_legacy WHERE due_date >= (SELECT legacy_until FROM record_partitioning);
+
+SELECT record_add_bound('record_legacy', NULL, (SELECT legacy_until FROM record_partitioning));
+
+DO $$
+BEGIN
+  EXECUTE format('ALTER TABLE record ATTACH PARTITION record_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                 (SELECT legacy_until FROM record_partitioning));
+END;
+$$;
+
+ALTER TABLE record_legacy DROP CONSTRAINT record_legacy_bound;
+
+-- Change tracking (V11) on the partitioned table. Maintenance that only moves rows between
+-- partitions sets app.record_maintenance, so no tombstones are written for them.
+CREATE OR REPLACE FUNCTION record_write_tombstone()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  IF current_setting('app.record_maintenance', true) = 'on' THEN
+    RETURN OLD;
+  END IF;
+  INSERT INTO record_tombstone (user_id, record_id, change_seq)
+  VALUES (OLD.user_id, OLD.id, record_next_change_seq(OLD.user_id))
+  ON CONFLICT (user_id, record_id) DO UPDATE
+    SET change_seq = excluded.change_seq, deleted_at = excluded.deleted_at;
+  RETURN OLD;
+END;
+$$;
+
+-- An UPDATE of due_date into another month moves the row as a delete plus an insert, and the
+-- delete trigger leaves a tombstone for a record that still exists. Statement-level AFTER
+-- triggers run after the row-level ones, so the tombstone is gone before anyone can read it.
+CREATE OR REPLACE FUNCTION record_clear_moved_tombstones()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  DELETE FROM record_tombstone t
+  USING new_rows n
+  WHERE t.user_id = n.user_id AND t.record_id = n.id;
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_record_stamp_change
+  BEFORE INSERT OR UPDATE ON record
+  FOR EACH ROW EXECUTE FUNCTION record_stamp_change();
+
+CREATE TRIGGER trg_record_write_tombstone
+  AFTER DELETE ON record
+  FOR EACH ROW EXECUTE FUNCTION record_write_tombstone();
+
+CREATE TRIGGER trg_record_clear_moved_tombstones
+  AFTER UPDATE ON record
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION record_clear_moved_tombstones();
+
+-- Recurrence (V14): one row per occurrence that is no longer generated, whether it was
+-- recorded or skipped. Its primary key now does what the partial unique index on record did,
+-- and occurrence generation no longer probes every record partition.
+ALTER TABLE recurrence_skip RENAME TO recurrence_resolved;
+ALTER TABLE recurrence_resolved RENAME CONSTRAINT pk_recurrence_skip TO pk_recurrence_resolved;
+
+INSERT INTO recurrence_resolved (rule_id, occurrence_date)
+SELECT recurrence_rule_id, occurrence_date
+FROM record
+WHERE recurrence_rule_id IS NOT NULL AND occurrence_date IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION recurrence_occurrences(p_user_id UUID, p_from DATE, p_to DATE)
+RETURNS TABLE (
+  rule_id          UUID,
+  occurrence_date  DATE,
+  occurrence_no    INT,
+  kind             VARCHAR,
+  status           VARCHAR,
+  amount           NUMERIC,
+  category_id      UUID,
+  description      VARCHAR
+)
+LANGUAGE SQL STABLE PARALLEL SAFE
+AS $$
+  SELECT r.id,
+         o.d,
+         o.n + 1,
+         r.kind,
+         r.status,
+         r.amount,
+         r.category_id,
+         CASE WHEN r.occurrence_count IS NULL THEN r.description
+              ELSE concat_ws(' ', r.description, '(' || (o.n + 1) || '/' || r.occurrence_count || ')')
+         END::VARCHAR
+  FROM recurrence_rule r
+  CROSS JOIN LATERAL (
+    SELECT CASE r.frequency WHEN 'WEEKLY' THEN 7 * r.interval_count ELSE 0 END AS days_per_step,
+           CASE r.frequency WHEN 'MONTHLY' THEN r.interval_count
+                            WHEN 'YEARLY' THEN 12 * r.interval_count ELSE 0 END AS months_per_step
+  ) s
+  CROSS JOIN LATERAL (
+    SELECT CASE WHEN s.days_per_step > 0 THEN (p_from - r.start_date) / s.days_per_step
+                ELSE ((extract(year FROM p_from) - extract(year FROM r.start_date)) * 12
+                      + extract(month FROM p_from) - extract(month FROM r.start_date))::INT / s.months_per_step
+           END AS first_step,
+           CASE WHEN s.days_per_step > 0 THEN (p_to - r.start_date) / s.days_per_step
+                ELSE ((extract(year FROM p_to) - extract(year FROM r.start_date)) * 12
+                      + extract(month FROM p_to) - extract(month FROM r.start_date))::INT / s.months_per_step
+           END AS last_step
+  ) b
+  CROSS JOIN LATERAL (
+    SELECT n,
+           (r.start_date + n * s.days_per_step + make_interval(months => n * s.months_per_step))::DATE AS d
+    FROM generate_series(greatest(b.first_step - 1, 0),
+                         least(b.last_step + 1, coalesce(r.occurrence_count, 2147483647) - 1)) AS n
+  ) o
+  WHERE r.user_id = p_user_id
+    AND r.start_date <= p_to
+    AND (r.end_date IS NULL OR r.end_date >= p_from)
+    AND o.d BETWEEN p_from AND p_to
+    AND (r.end_date IS NULL OR o.d <= r.end_date)
+    AND NOT EXISTS (
+      SELECT 1 FROM recurrence_resolved k WHERE k.rule_id = r.id AND k.occurrence_date = o.d)
+$$;
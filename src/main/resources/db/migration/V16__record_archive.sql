@@ -0,0 +1,48 @@
+-- Cold storage for settled records past the archive horizon (RecordArchiver). Rows here are
+-- never updated, so the table is packed full, carries only the columns reads need and just
+-- the indexes for listing, reports and foreign key actions.
+CREATE TABLE IF NOT EXISTS record_archive (
+  id                  UUID NOT NULL,
+  user_id             UUID NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+  category_id         UUID REFERENCES category(id) ON DELETE SET NULL,
+  kind                VARCHAR(16) NOT NULL,
+  status              VARCHAR(16) NOT NULL,
+  amount              NUMERIC(14,2) NOT NULL,
+  due_date            DATE NOT NULL,
+  paid_at             TIMESTAMPTZ,
+  description         VARCHAR(255),
+  version             BIGINT NOT NULL,
+  recurrence_rule_id  UUID REFERENCES recurrence_rule(id) ON DELETE SET NULL,
+  occurrence_date     DATE,
+  archived_at         TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  CONSTRAINT pk_record_archive PRIMARY KEY (id)
+) WITH (fillfactor = 100);
+
+CREATE INDEX IF NOT EXISTS idx_record_archive_user_due_date_id
+  ON record_archive (user_id, due_date, id) WITH (fillfactor = 100);
+CREATE INDEX IF NOT EXISTS idx_record_archive_report
+  ON record_archive (user_id, due_date) INCLUDE (kind, amount, category_id) WITH (fillfactor = 100)
+  WHERE status <> 'CANCELED';
+CREATE INDEX IF NOT EXISTS idx_record_archive_category
+  ON record_archive (category_id) WHERE category_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_record_archive_recurrence_rule
+  ON record_archive (recurrence_rule_id) WHERE recurrence_rule_id IS NOT NULL;
+
+-- Settled records due before archived_before may be in record_archive; NULL while nothing
+-- was archived. Raised before rows move, so readers never miss a row in flight.
+CREATE TABLE IF NOT EXISTS record_archive_horizon (
+  id               BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+  archived_before  DATE
+);
+INSERT INTO record_archive_horizon (archived_before) VALUES (NULL) ON CONFLICT DO NOTHING;
+
+-- Live and archived records together, for listings whose range reaches past the horizon.
+-- Filters are pushed into both branches, so each keeps its own indexes and partition pruning.
+CREATE OR REPLACE VIEW record_all AS
+SELECT id, user_id, category_id, kind, status, amount, due_date, paid_at, description,
+       recurrence_rule_id, version
+FROM record
+UNION ALL
+SELECT id, user_id, category_id, kind, status, amount, due_date, paid_at, description,
+       recurrence_rule_id, version
+FROM record_archive;
@@ -0,0 +1,188 @@
+-- Per user, month, category and kind totals of non-canceled records, live and archived, so
+-- reports read one row per month instead of every record. Statement-level triggers apply the
+-- net change of each INSERT, UPDATE or DELETE on record from its transition tables. That
+-- covers every write path (JPA, JDBC batches, bulk statements, FK actions) with one upsert per
+-- statement. Moves flagged app.record_maintenance (archiving, partition upkeep) change nothing.
+CREATE TABLE IF NOT EXISTS record_monthly_rollup (
+  user_id      UUID NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+  month        DATE NOT NULL,
+  category_id  UUID,
+  kind         VARCHAR(16) NOT NULL,
+  total        NUMERIC(18,2) NOT NULL,
+  count        BIGINT NOT NULL
+);
+
+-- Uncategorized totals share one row per month and kind.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_record_monthly_rollup
+  ON record_monthly_rollup (user_id, month, kind, coalesce(category_id, '00000000-0000-0000-0000-000000000000'::UUID));
+
+-- Deltas are grouped per statement; users deleted by the same statement (cascade) are skipped
+-- and rollups left without records are removed.
+CREATE OR REPLACE FUNCTION record_rollup_on_insert()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  IF current_setting('app.record_maintenance', true) = 'on' THEN
+    RETURN NULL;
+  END IF;
+
+  INSERT INTO record_monthly_rollup AS r (user_id, month, category_id, kind, total, count)
+  SELECT d.user_id, date_trunc('month', d.due_date)::DATE, d.category_id, d.kind, sum(d.amount), sum(d.n)
+  FROM (
+    SELECT user_id, due_date, category_id, kind, amount, 1 AS n
+    FROM new_rows WHERE status <> 'CANCELED'
+  ) d
+  WHERE EXISTS (SELECT 1 FROM app_user u WHERE u.id = d.user_id)
+  GROUP BY 1, 2, 3, 4
+  HAVING sum(d.n) <> 0 OR sum(d.amount) <> 0
+  ON CONFLICT (user_id, month, kind, coalesce(category_id, '00000000-0000-0000-0000-000000000000'::UUID))
+  DO UPDATE SET total = r.total + excluded.total, count = r.count + excluded.count;
+
+  DELETE FROM record_monthly_rollup r
+  WHERE r.count = 0 AND r.user_id IN (SELECT DISTINCT user_id FROM new_rows);
+  RETURN NULL;
+END;
+$$;
+
+-- Edits that leave kind, amount, month, category and canceled-ness unchanged net to zero and
+-- write nothing.
+CREATE OR REPLACE FUNCTION record_rollup_on_update()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  IF current_setting('app.record_maintenance', true) = 'on' THEN
+    RETURN NULL;
+  END IF;
+
+  INSERT INTO record_monthly_rollup AS r (user_id, month, category_id, kind, total, count)
+  SELECT d.user_id, date_trunc('month', d.due_date)::DATE, d.category_id, d.kind, sum(d.amount), sum(d.n)
+  FROM (
+    SELECT user_id, due_date, category_id, kind, amount, 1 AS n
+    FROM new_rows WHERE status <> 'CANCELED'
+    UNION ALL
+    SELECT user_id, due_date, category_id, kind, -amount, -1
+    FROM old_rows WHERE status <> 'CANCELED'
+  ) d
+  WHERE EXISTS (SELECT 1 FROM app_user u WHERE u.id = d.user_id)
+  GROUP BY 1, 2, 3, 4
+  HAVING sum(d.n) <> 0 OR sum(d.amount) <> 0
+  ON CONFLICT (user_id, month, kind, coalesce(category_id, '00000000-0000-0000-0000-000000000000'::UUID))
+  DO UPDATE SET total = r.total + excluded.total, count = r.count + excluded.count;
+
+  DELETE FROM record_monthly_rollup r
+  WHERE r.count = 0 AND r.user_id IN (SELECT DISTINCT user_id FROM old_rows);
+  RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION record_rollup_on_delete()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  IF current_setting('app.record_maintenance', true) = 'on' THEN
+    RETURN NULL;
+  END IF;
+
+  INSERT INTO record_monthly_rollup AS r (user_id, month, category_id, kind, total, count)
+  SELECT d.user_id, date_trunc('month', d.due_date)::DATE, d.category_id, d.kind, sum(d.amount), sum(d.n)
+  FROM (
+    SELECT user_id, due_date, category_id, kind, -amount AS amount, -1 AS n
+    FROM old_rows WHERE status <> 'CANCELED'
+  ) d
+  WHERE EXISTS (SELECT 1 FROM app_user u WHERE u.id = d.user_id)
+  GROUP BY 1, 2, 3, 4
+  HAVING sum(d.n) <> 0 OR sum(d.amount) <> 0
+  ON CONFLICT (user_id, month, kind, coalesce(category_id, '00000000-0000-0000-0000-000000000000'::UUID))
+  DO UPDATE SET total = r.total + excluded.total, count = r.count + excluded.count;
+
+  DELETE FROM record_monthly_rollup r
+  WHERE r.count = 0 AND r.user_id IN (SELECT DISTINCT user_id FROM old_rows);
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_record_rollup_insert
+  AFTER INSERT ON record
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION record_rollup_on_insert();
+
+CREATE TRIGGER trg_record_rollup_update
+  AFTER UPDATE ON record
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION record_rollup_on_update();
+
+CREATE TRIGGER trg_record_rollup_delete
+  AFTER DELETE ON record
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION record_rollup_on_delete();
+
+-- Archived rows only change through FK actions (a category or user being deleted).
+CREATE TRIGGER trg_record_archive_rollup_update
+  AFTER UPDATE ON record_archive
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION record_rollup_on_update();
+
+-- Rebuilds one user's rollups from live and archived records. Holds the user's change lock
+-- (V11), so no write of theirs runs concurrently and the result is exact.
+CREATE OR REPLACE FUNCTION record_rollup_rebuild(p_user_id UUID)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  PERFORM pg_advisory_xact_lock(hashtext('record_change_seq'), hashtext(p_user_id::text));
+  DELETE FROM record_monthly_rollup WHERE user_id = p_user_id;
+  INSERT INTO record_monthly_rollup (user_id, month, category_id, kind, total, count)
+  SELECT p_user_id, date_trunc('month', x.due_date)::DATE, x.category_id, x.kind, sum(x.amount), count(*)
+  FROM (
+    SELECT due_date, category_id, kind, amount FROM record
+    WHERE user_id = p_user_id AND status <> 'CANCELED'
+    UNION ALL
+    SELECT due_date, category_id, kind, amount FROM record_archive
+    WHERE user_id = p_user_id AND status <> 'CANCELED'
+  ) x
+  GROUP BY 2, 3, 4;
+END;
+$$;
+
+-- Users among p_user_ids whose rollups differ from their records. A single statement, so both
+-- sides come from one snapshot and in-flight writes cannot show up as mismatches.
+CREATE OR REPLACE FUNCTION record_rollup_mismatches(p_user_ids UUID[])
+RETURNS SETOF UUID
+LANGUAGE SQL STABLE
+AS $$
+  WITH expected AS (
+    SELECT x.user_id, date_trunc('month', x.due_date)::DATE AS month,
+           coalesce(x.category_id, '00000000-0000-0000-0000-000000000000'::UUID) AS category_key,
+           x.kind, sum(x.amount) AS total, count(*) AS count
+    FROM (
+      SELECT user_id, due_date, category_id, kind, amount FROM record
+      WHERE user_id = ANY(p_user_ids) AND status <> 'CANCELED'
+      UNION ALL
+      SELECT user_id, due_date, category_id, kind, amount FROM record_archive
+      WHERE user_id = ANY(p_user_ids) AND status <> 'CANCELED'
+    ) x
+    GROUP BY 1, 2, 3, 4
+  ), actual AS (
+    SELECT user_id, month, coalesce(category_id, '00000000-0000-0000-0000-000000000000'::UUID) AS category_key,
+           kind, total, count
+    FROM record_monthly_rollup
+    WHERE user_id = ANY(p_user_ids)
+  )
+  SELECT DISTINCT coalesce(e.user_id, a.user_id)
+  FROM expected e
+  FULL JOIN actual a
+    ON a.user_id = e.user_id AND a.month = e.month AND a.category_key = e.category_key AND a.kind = e.kind
+  WHERE e.total IS DISTINCT FROM a.total OR e.count IS DISTINCT FROM a.count
+$$;
+
+INSERT INTO record_monthly_rollup (user_id, month, category_id, kind, total, count)
+SELECT x.user_id, date_trunc('month', x.due_date)::DATE, x.category_id, x.kind, sum(x.amount), count(*)
+FROM (
+  SELECT user_id, due_date, category_id, kind, amount FROM record WHERE status <> 'CANCELED'
+  UNION ALL
+  SELECT user_id, due_date, category_id, kind, amount FROM record_archive WHERE status <> 'CANCELED'
+) x
+GROUP BY 1, 2, 3, 4;
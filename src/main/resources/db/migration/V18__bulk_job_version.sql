@@ -0,0 +1,3 @@
+-- Optimistic lock for bulk_job: a worker whose lease was taken over cannot overwrite the new
+-- owner's progress with its stale copy of the row.
+ALTER TABLE bulk_job ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
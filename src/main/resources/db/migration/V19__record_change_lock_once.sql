@@ -0,0 +1,27 @@
+-- Bulk writers take the user's change lock (V11) once, before their first statement, and
+-- flag it in app.record_change_locked; the per-row stamp then skips the lock call. The flag
+-- is transaction-local and only set after the lock is granted, so it never outlives the lock.
+-- The lock is still held until commit: interactive writes of the same user wait for the
+-- bulk transaction, which is why bulk paths keep their transactions short (COPY into the
+-- staging table runs before the lock; bulk jobs commit per chunk).
+CREATE OR REPLACE FUNCTION record_lock_changes(p_user_id UUID)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  PERFORM pg_advisory_xact_lock(hashtext('record_change_seq'), hashtext(p_user_id::text));
+  PERFORM set_config('app.record_change_locked', p_user_id::text, true);
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION record_next_change_seq(p_user_id UUID)
+RETURNS BIGINT
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  IF current_setting('app.record_change_locked', true) IS DISTINCT FROM p_user_id::text THEN
+    PERFORM pg_advisory_xact_lock(hashtext('record_change_seq'), hashtext(p_user_id::text));
+  END IF;
+  RETURN nextval('record_change_seq');
+END;
+$$;
@@ -0,0 +1,5 @@
+-- Keyset pagination on /records/cursor seeks on (due_date, id) within a user.
+CREATE INDEX IF NOT EXISTS idx_record_user_due_date_id ON record (user_id, due_date, id);
+
+-- Left-prefix of the index above.
+DROP INDEX IF EXISTS idx_record_user_due_date;
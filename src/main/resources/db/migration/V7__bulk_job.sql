@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS bulk_job (
+  id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  user_id         UUID NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+  request_id      VARCHAR(64),
+  status          VARCHAR(16) NOT NULL,
+  total_count     INT NOT NULL,
+  processed_count INT NOT NULL DEFAULT 0,
+  created_count   INT NOT NULL DEFAULT 0,
+  failed_count    INT NOT NULL DEFAULT 0,
+  error           TEXT,
+  lease_owner     VARCHAR(64),
+  lease_until     TIMESTAMPTZ,
+  created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  updated_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  finished_at     TIMESTAMPTZ
+);
+
+-- Submitted items, kept apart so polling a job's progress never reads them.
+CREATE TABLE IF NOT EXISTS bulk_job_payload (
+  job_id UUID PRIMARY KEY REFERENCES bulk_job(id) ON DELETE CASCADE,
+  items  JSONB NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_bulk_job_user_request
+  ON bulk_job (user_id, request_id) WHERE request_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bulk_job_runnable
+  ON bulk_job (created_at) WHERE status IN ('PENDING', 'RUNNING');
@@ -0,0 +1,31 @@
+CREATE TABLE IF NOT EXISTS idempotency_key (
+  user_id       UUID NOT NULL REFERENCES app_user(id) ON DELETE CASCADE,
+  scope         VARCHAR(64) NOT NULL,
+  idem_key      VARCHAR(64) NOT NULL,
+  status        VARCHAR(16) NOT NULL,
+  owner_token   UUID,
+  locked_until  TIMESTAMPTZ,
+  response      JSONB,
+  created_at    TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  completed_at  TIMESTAMPTZ,
+  expires_at    TIMESTAMPTZ NOT NULL,
+  CONSTRAINT pk_idempotency_key PRIMARY KEY (user_id, scope, idem_key),
+  CONSTRAINT ck_idempotency_key_status CHECK (status IN ('IN_FLIGHT', 'COMPLETED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_expires_at ON idempotency_key (expires_at);
+
+-- Carry over results of earlier bulk calls so retries keep replaying them until they expire.
+INSERT INTO idempotency_key (user_id, scope, idem_key, status, response, created_at, completed_at, expires_at)
+SELECT user_id,
+       'record-bulk',
+       request_id,
+       'COMPLETED',
+       jsonb_build_object('created', created_count, 'failed', failed_count, 'errors', '[]'::jsonb),
+       processed_at,
+       processed_at,
+       GREATEST(processed_at, NOW()) + INTERVAL '7 days'
+FROM bulk_request
+ON CONFLICT DO NOTHING;
+
+DROP TABLE IF EXISTS bulk_request;
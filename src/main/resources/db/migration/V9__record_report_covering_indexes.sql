@@ -0,0 +1,14 @@
+-- Report queries (ReportQueries) filter user_id, status <> 'CANCELED' and a due_date range and
+-- only read kind/amount/category_id. Covering these columns and leaving CANCELED rows out
+-- allows index-only scans instead of a heap fetch per row.
+CREATE INDEX IF NOT EXISTS idx_record_report_due_date
+  ON record (user_id, due_date) INCLUDE (kind, amount, category_id)
+  WHERE status <> 'CANCELED';
+
+-- Same, when reports are restricted to a set of categories.
+CREATE INDEX IF NOT EXISTS idx_record_report_category
+  ON record (user_id, category_id, due_date) INCLUDE (kind, amount)
+  WHERE status <> 'CANCELED';
+
+-- Index-only scans depend on the visibility map; keep it fresh on this insert-heavy table.
+ALTER TABLE record SET (autovacuum_vacuum_insert_scale_factor = 0.05, autovacuum_vacuum_scale_factor = 0.05);
@@ -0,0 +1,129 @@
+package com.finance.api.record.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.finance.api.common.exception.ConflictException;
+import com.finance.api.idempotency.application.IdempotencyService;
+import com.finance.api.record.domain.BulkJobStatus;
+import com.finance.api.record.domain.BulkResult;
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.domain.RecordStatus;
+import com.finance.api.record.persistence.BulkJobEntity;
+import com.finance.api.record.persistence.BulkJobRepository;
+
+class BulkJobServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final String KEY = "req-1";
+    private static final List<RecordRequest> ITEMS = List.of(new RecordRequest(RecordKind.EXPENSE,
+            RecordStatus.PENDING, new BigDecimal("10.00"), LocalDate.of(2024, 1, 1), null, "rent"));
+
+    private final BulkJobRepository jobs = mock(BulkJobRepository.class);
+    private final IdempotencyService idempotency = mock(IdempotencyService.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private BulkJobService service;
+
+    @BeforeEach
+    void setUp() {
+        var txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jobs.saveAndFlush(any())).thenAnswer(inv -> {
+            BulkJobEntity job = inv.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+        service = new BulkJobService(jobs, mock(RecordService.class), idempotency, JsonMapper.builder().findAndAddModules().build(), events,
+                new TransactionTemplate(txManager), 1000, Duration.ofMinutes(2));
+    }
+
+    @Test
+    void reservesTheKeyWithTheNewJob() {
+        when(jobs.findByUserIdAndRequestId(USER, KEY)).thenReturn(Optional.empty());
+        when(idempotency.reserveForJob(USER, RecordService.BULK_SCOPE, KEY)).thenReturn(true);
+
+        var job = service.submit(USER, ITEMS, KEY);
+
+        assertThat(job.status()).isEqualTo(BulkJobStatus.PENDING);
+        verify(jobs).savePayload(eq(job.id()), anyString());
+    }
+
+    @Test
+    void returnsTheJobOfAConcurrentSubmitThatWonTheKey() {
+        var winner = job(BulkJobStatus.PENDING);
+        when(jobs.findByUserIdAndRequestId(USER, KEY)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(idempotency.reserveForJob(USER, RecordService.BULK_SCOPE, KEY)).thenReturn(false);
+
+        assertThat(service.submit(USER, ITEMS, KEY).id()).isEqualTo(winner.getId());
+        verify(jobs, never()).saveAndFlush(any());
+        verify(idempotency, never()).await(any(), any(), any(), any());
+    }
+
+    @Test
+    void returnsTheExistingJobWhenItsInsertLosesTheUniqueIndex() {
+        var winner = job(BulkJobStatus.RUNNING);
+        when(jobs.findByUserIdAndRequestId(USER, KEY)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(idempotency.reserveForJob(USER, RecordService.BULK_SCOPE, KEY)).thenReturn(true);
+        doThrow(new DataIntegrityViolationException("uk_bulk_job_user_request")).when(jobs).saveAndFlush(any());
+
+        assertThat(service.submit(USER, ITEMS, KEY).id()).isEqualTo(winner.getId());
+    }
+
+    @Test
+    void replaysASyncCallsResultAsACompletedJob() {
+        when(jobs.findByUserIdAndRequestId(USER, KEY)).thenReturn(Optional.empty());
+        when(idempotency.reserveForJob(USER, RecordService.BULK_SCOPE, KEY)).thenReturn(false);
+        when(idempotency.await(USER, RecordService.BULK_SCOPE, KEY, BulkResult.class))
+                .thenReturn(Optional.of(new BulkResult(1, 0)));
+
+        var job = service.submit(USER, ITEMS, KEY);
+
+        assertThat(job.status()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(job.created()).isEqualTo(1);
+        verify(jobs, never()).savePayload(any(), any());
+    }
+
+    @Test
+    void givesUpWhenTheKeyKeepsGoingStale() {
+        when(jobs.findByUserIdAndRequestId(USER, KEY)).thenReturn(Optional.empty());
+        when(idempotency.reserveForJob(USER, RecordService.BULK_SCOPE, KEY)).thenReturn(false);
+        when(idempotency.await(USER, RecordService.BULK_SCOPE, KEY, BulkResult.class)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.submit(USER, ITEMS, KEY)).isInstanceOf(ConflictException.class);
+    }
+
+    private static BulkJobEntity job(BulkJobStatus status) {
+        var job = new BulkJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setUserId(USER);
+        job.setRequestId(KEY);
+        job.setStatus(status);
+        job.setTotalCount(ITEMS.size());
+        return job;
+    }
+}
@@ -0,0 +1,85 @@
+package com.finance.api.record.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.hibernate.validator.HibernateValidator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.domain.RecordStatus;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * {@link RecordRequestValidator} copies the annotations on {@link RecordRequest} by hand; this
+ * runs both on the same inputs, so a constraint changed on one side only fails here.
+ */
+class RecordRequestValidatorTest {
+
+    private static final ValidatorFactory FACTORY = Validation.byProvider(HibernateValidator.class)
+            .configure().defaultLocale(Locale.ENGLISH).buildValidatorFactory();
+    private static final Validator BEAN_VALIDATOR = FACTORY.getValidator();
+
+    @AfterAll
+    static void close() {
+        FACTORY.close();
+    }
+
+    @Test
+    void agreesWithBeanValidationOnEveryCombination() {
+        for (RecordRequest in : requests()) {
+            Map<String, String> expected = BEAN_VALIDATOR.validate(in).stream().collect(Collectors.toMap(
+                    v -> v.getPropertyPath().toString(), v -> v.getMessage(), (a, b) -> a));
+
+            String violation = RecordRequestValidator.violation(in);
+
+            if (expected.isEmpty()) {
+                assertThat(violation).as("%s", in).isNull();
+            } else {
+                assertThat(violation).as("%s", in).isNotNull();
+                String field = violation.substring(0, violation.indexOf(':'));
+                assertThat(expected).as("%s", in).containsEntry(field, violation.substring(field.length() + 2));
+            }
+        }
+    }
+
+    @Test
+    void rejectsAMissingItem() {
+        assertThat(RecordRequestValidator.violation(null)).isEqualTo("item: Record is required");
+    }
+
+    /** Every combination of a valid, missing and boundary value per constrained field. */
+    private static List<RecordRequest> requests() {
+        var kinds = new RecordKind[] {RecordKind.EXPENSE, RecordKind.INCOME, null};
+        var statuses = new RecordStatus[] {RecordStatus.PENDING, null};
+        var amounts = new BigDecimal[] {new BigDecimal("0.00"), new BigDecimal("12.50"), new BigDecimal("-0.01"), null};
+        var dueDates = new LocalDate[] {LocalDate.of(2024, 2, 29), null};
+        var descriptions = new String[] {null, "", "a".repeat(255), "a".repeat(256)};
+        List<RecordRequest> out = new ArrayList<>();
+        for (var kind : kinds) {
+            for (var status : statuses) {
+                for (var amount : amounts) {
+                    for (var dueDate : dueDates) {
+                        for (var description : descriptions) {
+                            out.add(new RecordRequest(kind, status, amount, dueDate, UUID.randomUUID(), description));
+                        }
+                    }
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,100 @@
+package com.finance.api.record.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.finance.api.common.exception.ConflictException;
+import com.finance.api.common.exception.NotFoundException;
+import com.finance.api.idempotency.application.IdempotencyService;
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordRequest;
+import com.finance.api.record.domain.RecordStatus;
+import com.finance.api.record.persistence.RecordArchiveStore;
+import com.finance.api.record.persistence.RecordBatchWriter;
+import com.finance.api.record.persistence.RecordBulkOperations;
+import com.finance.api.record.persistence.RecordConditionalUpdates;
+import com.finance.api.record.persistence.RecordQueries;
+import com.finance.api.record.persistence.RecordRepository;
+import com.finance.api.recurrence.persistence.OccurrenceQueries;
+
+class RecordServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID ARCHIVED = UUID.randomUUID();
+    private static final UUID LIVE = UUID.randomUUID();
+
+    private final RecordBulkOperations bulkOps = mock(RecordBulkOperations.class);
+    private final RecordConditionalUpdates conditional = mock(RecordConditionalUpdates.class);
+    private final RecordArchiveStore archive = mock(RecordArchiveStore.class);
+    private final RecordService service = new RecordService(mock(RecordRepository.class),
+            mock(RecordQueries.class), mock(RecordBatchWriter.class), bulkOps, conditional,
+            mock(OccurrenceQueries.class), archive, mock(IdempotencyService.class), mock(TransactionTemplate.class),
+            mock(ApplicationEventPublisher.class), 1000);
+
+    RecordServiceTest() {
+        when(archive.archivedAmong(eq(USER), anyList()))
+                .thenAnswer(inv -> inv.<List<UUID>>getArgument(1).stream().filter(ARCHIVED::equals).toList());
+        when(conditional.replace(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(conditional.confirm(any(), any(), any())).thenReturn(Optional.empty());
+        when(conditional.updateStatus(any(), any(), any(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void singleRecordWritesToAnArchivedRecordConflict() {
+        var in = new RecordRequest(RecordKind.EXPENSE, RecordStatus.PAID, new BigDecimal("10.00"),
+                LocalDate.of(2020, 1, 1), null, "rent");
+
+        assertThatThrownBy(() -> service.update(USER, ARCHIVED, in, null))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Archived records are read-only");
+        assertThatThrownBy(() -> service.confirm(USER, ARCHIVED, null))
+                .isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> service.updateStatus(USER, ARCHIVED, RecordStatus.CANCELED, null))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void writesToAnUnknownRecordAreStillNotFound() {
+        assertThatThrownBy(() -> service.confirm(USER, LIVE, null)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void deletingAnArchivedIdFailsTheWholeRequest() {
+        when(bulkOps.deleteByIds(USER, List.of(LIVE, ARCHIVED))).thenReturn(List.of(LIVE));
+
+        assertThatThrownBy(() -> service.deleteMany(USER, List.of(LIVE, ARCHIVED)))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void deletingUnknownIdsCountsOnlyTheDeleted() {
+        UUID unknown = UUID.randomUUID();
+        when(bulkOps.deleteByIds(USER, List.of(LIVE, unknown))).thenReturn(List.of(LIVE));
+
+        assertThat(service.deleteMany(USER, List.of(LIVE, unknown))).isEqualTo(1);
+    }
+
+    @Test
+    void bulkStatusChangeOfAnArchivedIdConflicts() {
+        when(bulkOps.updateStatus(USER, List.of(ARCHIVED), RecordStatus.CANCELED)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.updateStatusMany(USER, List.of(ARCHIVED), null, RecordStatus.CANCELED))
+                .isInstanceOf(ConflictException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.finance.api.record.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.finance.api.record.persistence.RecordArchiveStore;
+import com.finance.api.record.persistence.RecordSyncQueries;
+
+class RecordSyncServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    private final RecordSyncQueries queries = mock(RecordSyncQueries.class);
+    private final RecordArchiveStore archive = mock(RecordArchiveStore.class);
+    private final RecordSyncService service = new RecordSyncService(queries, archive, Duration.ofDays(30), 1000);
+
+    RecordSyncServiceTest() {
+        when(queries.changesSince(eq(USER), anyLong(), anyInt())).thenReturn(List.of());
+        when(queries.currentSeq(USER)).thenReturn(42L);
+    }
+
+    @Test
+    void startingFromScratchReplaysTheFeedWhileNothingIsArchived() {
+        var page = service.changesSince(USER, 0, 100);
+
+        assertThat(page.reset()).isFalse();
+    }
+
+    @Test
+    void startingFromScratchResetsOnceRecordsAreArchived() {
+        when(archive.horizon()).thenReturn(LocalDate.of(2024, 1, 1));
+
+        var page = service.changesSince(USER, 0, 100);
+
+        assertThat(page.reset()).isTrue();
+        assertThat(page.cursor()).isEqualTo(42);
+    }
+
+    @Test
+    void aResumedPositionIsNotResetByTheArchive() {
+        when(archive.horizon()).thenReturn(LocalDate.of(2024, 1, 1));
+
+        var page = service.changesSince(USER, 7, 100);
+
+        assertThat(page.reset()).isFalse();
+        assertThat(page.cursor()).isEqualTo(7);
+    }
+}
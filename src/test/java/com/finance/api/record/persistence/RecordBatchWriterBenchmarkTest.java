@@ -0,0 +1,91 @@
+package com.finance.api.record.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.finance.api.record.domain.RecordKind;
+import com.finance.api.record.domain.RecordStatus;
+import com.finance.api.support.Measurement;
+import com.finance.api.support.PostgresBenchmark;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Bulk insert throughput of {@link RecordBatchWriter} against the {@code saveAll} path it
+ * replaced, flushed and cleared as a commit would, at 1k, 10k and 100k rows. Every run inserts
+ * fresh rows; they all roll back with the test.
+ */
+@PostgresBenchmark
+@Import(RecordBatchWriter.class)
+class RecordBatchWriterBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordBatchWriterBenchmarkTest.class);
+
+  @Autowired
+  private RecordBatchWriter writer;
+
+  @Autowired
+  private RecordRepository repo;
+
+  @Autowired
+  private EntityManager em;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  private UUID user;
+
+  @BeforeEach
+  void seedUser() {
+    user = jdbc.queryForObject("""
+        insert into app_user (id, email, password_hash, full_name)
+        values (gen_random_uuid(), 'bench-' || gen_random_uuid() || '@example.test', 'x', 'Benchmark')
+        returning id
+        """, UUID.class);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1000, 3", "10000, 3", "100000, 1"})
+  void batchWriterOutpacesSaveAll(int rows, int runs) {
+    var saveAll = Measurement.of(1, runs, () -> {
+      repo.saveAll(records(rows));
+      em.flush();
+      em.clear();
+    });
+    var batched = Measurement.of(1, runs, () -> assertThat(writer.insertAll(records(rows))).isEqualTo(rows));
+
+    log.info("{} rows: saveAll {} rows/s, {} KiB; batch writer {} rows/s, {} KiB", rows,
+        "%.0f".formatted(rows / (saveAll.millis() / 1000)), "%.0f".formatted(saveAll.kilobytes()),
+        "%.0f".formatted(rows / (batched.millis() / 1000)), "%.0f".formatted(batched.kilobytes()));
+    assertThat(batched.bytes()).isLessThan(saveAll.bytes());
+  }
+
+  private List<RecordEntity> records(int count) {
+    List<RecordEntity> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      var e = new RecordEntity();
+      e.setUserId(user);
+      e.setKind(RecordKind.EXPENSE);
+      e.setStatus(RecordStatus.PENDING);
+      e.setAmount(BigDecimal.valueOf(i % 1000, 2));
+      e.setDueDate(LocalDate.of(2024, 1, 1).plusDays(i % 366));
+      e.setDescription("row " + i);
+      out.add(e);
+    }
+    return out;
+  }
+}
@@ -0,0 +1,93 @@
+package com.finance.api.record.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.finance.api.record.domain.RecordFilter;
+import com.finance.api.record.domain.RecordResponse;
+import com.finance.api.support.Measurement;
+import com.finance.api.support.PostgresBenchmark;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * The projected listing ({@link RecordQueries#page}) against the entity path it replaced,
+ * {@code findAll(spec, pageable)} mapped to {@link RecordResponse}, one page of 50, 500 and
+ * 5000 rows. The persistence context is cleared after each run, as a request ends with it.
+ */
+@PostgresBenchmark
+@Import(RecordQueries.class)
+class RecordListingBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(RecordListingBenchmarkTest.class);
+  private static final Sort KEYSET_ORDER = Sort.by("dueDate", "id");
+
+  @Autowired
+  private RecordRepository repo;
+
+  @Autowired
+  private RecordQueries queries;
+
+  @Autowired
+  private EntityManager em;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  private UUID user;
+
+  @BeforeEach
+  void seed() {
+    user = jdbc.queryForObject("""
+        insert into app_user (id, email, password_hash, full_name)
+        values (gen_random_uuid(), 'bench-' || gen_random_uuid() || '@example.test', 'x', 'Benchmark')
+        returning id
+        """, UUID.class);
+    // One row more than the largest page, so every page is full and both paths also count.
+    jdbc.update("""
+        insert into record (id, user_id, kind, status, amount, due_date, description)
+        select gen_random_uuid(), ?, 'EXPENSE', 'PENDING', g, date '2024-01-01' + g % 366, 'row ' || g
+        from generate_series(1, 5001) g
+        """, user);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {50, 500, 5000})
+  void projectionAllocatesLessThanEntities(int rows) {
+    var spec = RecordSpecifications.matching(user, new RecordFilter(null, null, null, null, null, null));
+    var page = PageRequest.of(0, rows, KEYSET_ORDER);
+
+    var entities = Measurement.of(3, 5, () -> {
+      assertThat(repo.findAll(spec, page).map(RecordListingBenchmarkTest::toResponse)).hasSize(rows);
+      em.clear();
+    });
+    var projection = Measurement.of(3, 5, () -> {
+      assertThat(queries.page(spec, page)).hasSize(rows);
+      em.clear();
+    });
+
+    log.info("{} rows: entities {} ms, {} KiB; projection {} ms, {} KiB", rows,
+        "%.2f".formatted(entities.millis()), "%.0f".formatted(entities.kilobytes()),
+        "%.2f".formatted(projection.millis()), "%.0f".formatted(projection.kilobytes()));
+    assertThat(projection.bytes()).isLessThan(entities.bytes());
+  }
+
+  private static RecordResponse toResponse(RecordEntity e) {
+    return new RecordResponse(
+        e.getId(), e.getCategoryId(), e.getKind(), e.getStatus(),
+        e.getAmount(), e.getDueDate(), e.getPaidAt(), e.getDescription(),
+        e.getRecurrenceRuleId(), e.getVersion());
+  }
+}
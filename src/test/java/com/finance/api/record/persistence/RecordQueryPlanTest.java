@@ -0,0 +1,93 @@
+package com.finance.api.record.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.finance.api.record.domain.RecordFilter;
+import com.finance.api.support.CapturedStatements;
+import com.finance.api.support.PlanTestData;
+import com.finance.api.support.PostgresPlanTest;
+import com.finance.api.support.QueryPlan;
+
+/**
+ * Pins the plans of the record listings: the statements Hibernate generates are explained as
+ * generic plans, so the assertions hold whatever values a request binds. Listings are served
+ * by the keyset (V6) and description search (V10) indexes; V9 only covers the reports.
+ */
+@PostgresPlanTest
+@Import(RecordQueries.class)
+class RecordQueryPlanTest {
+
+  @Autowired
+  private RecordQueries queries;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  private UUID user;
+
+  @BeforeEach
+  void seed() {
+    user = PlanTestData.seed(jdbc).get(0);
+    CapturedStatements.clear();
+  }
+
+  @Test
+  void dateRangeListingUsesKeysetIndex() {
+    var from = LocalDate.of(2024, 1, 1);
+    var to = LocalDate.of(2024, 3, 31);
+    var filter = new RecordFilter(null, from, to, null, null, null);
+
+    var plan = explainListing(filter, true, user, from, to, 21);
+
+    assertThat(plan.indexes()).as(plan.json()).contains("idx_record_user_due_date_id", "idx_record_archive_user_due_date_id");
+    assertThat(plan.seqScans()).as(plan.json()).doesNotContain("record", "record_archive");
+  }
+
+  @Test
+  void descriptionSearchUsesSearchIndexes() {
+    var filter = new RecordFilter(null, null, null, null, null, null, "dentist", null, null);
+
+    // Ranked like RecordService.list, so every match is read rather than the first page in date order.
+    queries.page(RecordSpecifications.matching(user, filter), PageRequest.of(0, 20, Sort.by("dueDate", "id")),
+        filter.q(), false);
+    var sql = CapturedStatements.reading("record");
+    assertThat(sql).hasSize(1);
+    var plan = QueryPlan.explain(jdbc, sql.get(0), user, 0, 20);
+
+    assertThat(plan.indexes()).as(plan.json()).contains("idx_record_description_tsv", "idx_record_description_trgm");
+    assertThat(plan.seqScans()).as(plan.json()).doesNotContain("record");
+  }
+
+  @Test
+  void lookupByIdAmongArchivedUsesIndexes() {
+    UUID archived = jdbc.queryForObject(
+        "select id from record_archive where user_id = ? limit 1", UUID.class, user);
+    queries.find(user, archived, true);
+    var sql = CapturedStatements.reading("record_all");
+    assertThat(sql).hasSize(1);
+
+    var plan = QueryPlan.explain(jdbc, sql.get(0), user, archived, 1);
+
+    assertThat(plan.indexes()).as(plan.json()).contains("pk_record", "pk_record_archive");
+    assertThat(plan.seqScans()).as(plan.json()).doesNotContain("record", "record_archive");
+  }
+
+  /** Explains the listing {@code filter} selects, with {@code values} in the statement's parameter order. */
+  private QueryPlan explainListing(RecordFilter filter, boolean withArchive, Object... values) {
+    queries.list(RecordSpecifications.matching(user, filter), Sort.by("dueDate", "id"), 21, withArchive);
+    var sql = CapturedStatements.reading(withArchive ? "record_all" : "record");
+    assertThat(sql).hasSize(1);
+    return QueryPlan.explain(jdbc, sql.get(0), values);
+  }
+}
@@ -0,0 +1,95 @@
+package com.finance.api.report.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.finance.api.common.exception.BadRequestException;
+import com.finance.api.report.domain.ForecastBacktest;
+import com.finance.api.report.domain.ForecastItem;
+import com.finance.api.report.domain.ForecastModel;
+import com.finance.api.report.persistence.ReportQueries;
+import com.finance.api.report.persistence.ReportQueries.CashflowRow;
+
+class ReportServiceTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    private final ReportQueries queries = mock(ReportQueries.class);
+    private ReportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        var cache = mock(ReportCache.class);
+        when(cache.get(any(), anyString(), any(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<Object>>getArgument(5).get());
+        var txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        service = new ReportService(queries, cache, txManager);
+    }
+
+    @Test
+    void backtestStartsEachModelAtItsMinimumHistory() {
+        cashflow(row(2024, 1, "100.00", "10.00"), row(2024, 2, "200.00", "10.00"), row(2024, 3, "300.00", "10.00"));
+
+        var results = service.backtest(USER, FROM, TO, List.of());
+
+        assertThat(results).containsExactly(
+                new ForecastBacktest(ForecastModel.SMA, 2, new BigDecimal("125.00"), new BigDecimal("0.00")),
+                new ForecastBacktest(ForecastModel.EWMA, 2, new BigDecimal("125.00"), new BigDecimal("0.00")),
+                new ForecastBacktest(ForecastModel.HOLT_WINTERS, 0, null, null),
+                new ForecastBacktest(ForecastModel.LINEAR, 1, new BigDecimal("0.00"), new BigDecimal("0.00")));
+    }
+
+    @Test
+    void backtestOfNoHistoryTestsNothing() {
+        cashflow();
+
+        assertThat(service.backtest(USER, FROM, TO, List.of()))
+                .allSatisfy(b -> assertThat(b.months()).isZero())
+                .allSatisfy(b -> assertThat(b.incomeMeanAbsoluteError()).isNull());
+    }
+
+    @Test
+    void forecastCountsMissingMonthsAsZero() {
+        cashflow(row(2024, 1, "90.00", "30.00"), row(2024, 3, "0.00", "30.00"));
+
+        assertThat(service.forecast(USER, FROM, TO, List.of(), 2, ForecastModel.SMA)).containsExactly(
+                new ForecastItem(YearMonth.of(2024, 4), new BigDecimal("30.00"), new BigDecimal("20.00"), new BigDecimal("10.00")),
+                new ForecastItem(YearMonth.of(2024, 5), new BigDecimal("10.00"), new BigDecimal("16.67"), new BigDecimal("-6.67")));
+    }
+
+    @Test
+    void forecastRejectsHorizonsOutsideOneToTwentyFourMonths() {
+        assertThatThrownBy(() -> service.forecast(USER, FROM, TO, List.of(), 0, ForecastModel.SMA))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.forecast(USER, FROM, TO, List.of(), 25, ForecastModel.SMA))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private void cashflow(CashflowRow... rows) {
+        when(queries.queryCashflow(USER, FROM, TO, List.of())).thenReturn(List.of(rows));
+    }
+
+    private static CashflowRow row(int year, int month, String income, String expense) {
+        return new CashflowRow(YearMonth.of(year, month), new BigDecimal(income), new BigDecimal(expense));
+    }
+}
@@ -0,0 +1,36 @@
+package com.finance.api.report.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.finance.api.support.Measurement;
+
+/**
+ * Cost of a forecast as {@code monthsAhead} grows eightfold: linear models stay near 8x in
+ * time and allocate only their output, 8 bytes a month, where the BigDecimal implementation
+ * they replaced grew quadratically. The bounds leave room for timer and JIT noise while still
+ * failing well before 64x.
+ */
+@Tag("benchmark")
+class ForecastModelScalingTest {
+
+  private static final int SHORT = 20_000;
+  private static final int LONG = 8 * SHORT;
+
+  @ParameterizedTest
+  @EnumSource(ForecastModel.class)
+  void costGrowsLinearlyWithTheHorizon(ForecastModel model) {
+    long[] history = new Random(7).longs(36, 0, 10_000_000).toArray();
+
+    var near = Measurement.of(20, 10, () -> model.forecast(history, history.length, SHORT));
+    var far = Measurement.of(20, 10, () -> model.forecast(history, history.length, LONG));
+
+    assertThat(far.nanos()).as("time, %s vs %s ns", far.nanos(), near.nanos()).isLessThan(24 * near.nanos());
+    assertThat((far.bytes() - near.bytes()) / (double) (LONG - SHORT)).as("bytes per extra month").isLessThan(9);
+  }
+}
@@ -0,0 +1,131 @@
+package com.finance.api.report.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+class ForecastModelTest {
+
+  /** Monthly seasonal offsets in cents; they sum to zero so the yearly mean is the level. */
+  private static final long[] SEASON = {
+      -3000, -2500, -1000, 0, 1000, 2000, 3500, 3000, 1500, 0, -1500, -3000};
+
+  @Test
+  void smaMatchesThePreviousBigDecimalImplementation() {
+    var random = new Random(42);
+    for (int length = 0; length <= 8; length++) {
+      for (int run = 0; run < 200; run++) {
+        long[] history = random.longs(length, 0, 10_000_000).toArray();
+        int horizon = 1 + random.nextInt(24);
+
+        assertThat(ForecastModel.SMA.forecast(history, length, horizon))
+            .as("history %s", Arrays.toString(history))
+            .containsExactly(previousSma(history, horizon));
+      }
+    }
+  }
+
+  @Test
+  void smaGrowsItsWindowOverShortHistoriesAndThenSlides() {
+    assertThat(ForecastModel.SMA.forecast(new long[] {100, 200}, 2, 3)).containsExactly(150, 150, 167);
+    assertThat(ForecastModel.SMA.forecast(new long[] {300, 600, 900, 0}, 3, 4)).containsExactly(600, 700, 733, 678);
+    assertThat(ForecastModel.SMA.forecast(new long[0], 0, 2)).containsExactly(0, 0);
+  }
+
+  @Test
+  void divideHalfUpRoundsLikeBigDecimal() {
+    for (long dividend = -50; dividend <= 50; dividend++) {
+      for (long divisor = 1; divisor <= 4; divisor++) {
+        long expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+            .longValueExact();
+        assertThat(ForecastModel.divideHalfUp(dividend, divisor)).as("%d / %d", dividend, divisor).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void linearExtendsAnExactTrend() {
+    long[] history = series(12, t -> 50_000 + 2_500 * t);
+
+    assertThat(ForecastModel.LINEAR.forecast(history, 12, 3)).containsExactly(80_000, 82_500, 85_000);
+  }
+
+  @Test
+  void linearFloorsFallingTrendsAtZero() {
+    long[] history = series(4, t -> 3_000 - 1_000 * t);
+
+    assertThat(ForecastModel.LINEAR.forecast(history, 4, 3)).containsExactly(0, 0, 0);
+  }
+
+  @Test
+  void linearFallsBackToEwmaOnASingleMonth() {
+    assertThat(ForecastModel.LINEAR.forecast(new long[] {1234}, 1, 2)).containsExactly(1234, 1234);
+  }
+
+  /** Lengths off a year boundary catch a misaligned season index: one month off errs by up to 1700. */
+  @Test
+  void holtWintersReproducesANoiselessSeasonalTrend() {
+    long[] truth = series(60, t -> 100_000 + 200 * t + SEASON[(int) (t % 12)]);
+
+    for (int length : new int[] {24, 30, 36, 41}) {
+      assertThat(ForecastModel.HOLT_WINTERS.forecast(truth, length, 12)).as("length %d", length)
+          .containsExactly(Arrays.copyOfRange(truth, length, length + 12));
+    }
+  }
+
+  @Test
+  void holtWintersFallsBackToLinearBelowTwoSeasons() {
+    long[] history = series(23, t -> 10_000 + 300 * t + SEASON[(int) (t % 12)]);
+
+    assertThat(ForecastModel.HOLT_WINTERS.forecast(history, 23, 6))
+        .containsExactly(ForecastModel.LINEAR.forecast(history, 23, 6));
+  }
+
+  @Test
+  void forecastsOnlyReadTheFirstLengthMonths() {
+    long[] history = series(30, t -> 10_000 + 100 * t + SEASON[(int) (t % 12)]);
+    long[] truncated = Arrays.copyOf(history, 26);
+
+    for (ForecastModel model : ForecastModel.values()) {
+      assertThat(model.forecast(history, 26, 4)).as(model.name())
+          .containsExactly(model.forecast(truncated, 26, 4));
+    }
+  }
+
+  private static long[] series(int length, LongUnaryOperator value) {
+    long[] out = new long[length];
+    for (int t = 0; t < length; t++) {
+      out[t] = value.applyAsLong(t);
+    }
+    return out;
+  }
+
+  /** The SMA forecast as ReportService computed it before ForecastModel, over amounts with two decimals. */
+  private static long[] previousSma(long[] history, int horizon) {
+    List<BigDecimal> values = new ArrayList<>();
+    for (long cents : history) {
+      values.add(BigDecimal.valueOf(cents, 2));
+    }
+    long[] out = new long[horizon];
+    for (int i = 0; i < horizon; i++) {
+      BigDecimal avg = BigDecimal.ZERO;
+      if (!values.isEmpty()) {
+        int n = Math.min(values.size(), 3);
+        avg = values.subList(values.size() - n, values.size()).stream()
+            .reduce(BigDecimal.ZERO, BigDecimal::add)
+            .divide(BigDecimal.valueOf(n), RoundingMode.HALF_UP);
+      }
+      out[i] = avg.movePointRight(2).longValueExact();
+      values.add(avg);
+    }
+    return out;
+  }
+}
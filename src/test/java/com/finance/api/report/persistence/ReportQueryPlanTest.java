@@ -0,0 +1,90 @@
+package com.finance.api.report.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.finance.api.support.PlanTestData;
+import com.finance.api.support.PostgresPlanTest;
+import com.finance.api.support.QueryPlan;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Pins the plans of the report queries: the raw edge branches must be served by the V9 covering
+ * indexes (and their V16 archive counterparts) rather than by scanning a user's records.
+ * The window starts and ends mid-month so both edge ranges are planned.
+ */
+@PostgresPlanTest
+class ReportQueryPlanTest {
+
+  private static final LocalDate FROM = LocalDate.of(2024, 1, 15);
+  private static final LocalDate TO = LocalDate.of(2024, 6, 14);
+
+  @Autowired
+  private EntityManager em;
+
+  @Autowired
+  private JdbcTemplate jdbc;
+
+  private UUID user;
+
+  @BeforeEach
+  void seed() {
+    user = PlanTestData.seed(jdbc).get(0);
+  }
+
+  @Test
+  void summaryUsesReportIndexes() {
+    assertReportIndexes(explain(ReportQueries.SUMMARY, List.of()));
+  }
+
+  @Test
+  void cashflowUsesReportIndexes() {
+    assertReportIndexes(explain(ReportQueries.CASHFLOW, List.of()));
+  }
+
+  @Test
+  void dashboardUsesReportIndexes() {
+    assertReportIndexes(explain(ReportQueries.DASHBOARD, List.of()));
+  }
+
+  @Test
+  void byCategoryUsesReportIndexes() {
+    assertReportIndexes(explain(ReportQueries.byCategory(Sort.by("net")), List.of()));
+  }
+
+  @Test
+  void categoryFilterUsesReportIndexes() {
+    List<UUID> categories = jdbc.queryForList(
+        "select id from category where user_id = ? order by name limit 2", UUID.class, user);
+    assertReportIndexes(explain(ReportQueries.SUMMARY, categories));
+  }
+
+  /** Either V9 index covers the edge branches; which one wins depends on the statistics. */
+  private static void assertReportIndexes(QueryPlan plan) {
+    assertThat(plan.indexes()).as(plan.json())
+        .containsAnyOf("idx_record_report_due_date", "idx_record_report_category")
+        .contains("idx_record_archive_report");
+    assertThat(plan.seqScans()).as(plan.json()).doesNotContain("record", "record_archive");
+  }
+
+  private QueryPlan explain(String sql, List<UUID> categoryIds) {
+    Query q = em.createNativeQuery("explain (format json) " + sql);
+    ReportQueries.bind(q, user, FROM, TO, categoryIds);
+    if (sql.contains(":limit")) {
+      q.setParameter("limit", 20);
+      q.setParameter("offset", 0L);
+    }
+    return QueryPlan.parse(jdbc, String.valueOf(q.getSingleResult()));
+  }
+}
@@ -0,0 +1,33 @@
+package com.finance.api.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/** Records the SQL Hibernate prepares, so tests can explain exactly what the application runs. */
+public class CapturedStatements implements StatementInspector {
+
+  private static final List<String> statements = new ArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    synchronized (statements) {
+      statements.add(sql);
+    }
+    return sql;
+  }
+
+  public static void clear() {
+    synchronized (statements) {
+      statements.clear();
+    }
+  }
+
+  /** Captured statements reading {@code table}, in the order they were prepared. */
+  public static List<String> reading(String table) {
+    synchronized (statements) {
+      return statements.stream().filter(sql -> sql.matches("(?s).*\\bfrom\\s+" + table + "\\b.*")).toList();
+    }
+  }
+}
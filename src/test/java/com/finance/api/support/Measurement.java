@@ -0,0 +1,38 @@
+package com.finance.api.support;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Wall time and heap allocated by the calling thread for one run of a task: the best of
+ * {@code runs} after {@code warmups} unmeasured ones, which keeps JIT and GC noise out of
+ * the comparison better than an average does.
+ */
+public record Measurement(long nanos, long bytes) {
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  public static Measurement of(int warmups, int runs, Runnable task) {
+    for (int i = 0; i < warmups; i++) {
+      task.run();
+    }
+    long nanos = Long.MAX_VALUE;
+    long bytes = Long.MAX_VALUE;
+    for (int i = 0; i < runs; i++) {
+      long allocated = THREADS.getCurrentThreadAllocatedBytes();
+      long started = System.nanoTime();
+      task.run();
+      nanos = Math.min(nanos, System.nanoTime() - started);
+      bytes = Math.min(bytes, THREADS.getCurrentThreadAllocatedBytes() - allocated);
+    }
+    return new Measurement(nanos, bytes);
+  }
+
+  public double millis() {
+    return nanos / 1e6;
+  }
+
+  public double kilobytes() {
+    return bytes / 1024.0;
+  }
+}
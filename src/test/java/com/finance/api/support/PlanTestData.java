@@ -0,0 +1,72 @@
+package com.finance.api.support;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Representative rows for {@link PostgresPlanTest}s, so their plans do not depend on whatever
+ * the database in {@code TEST_DB_URL} already holds: {@value #USERS} users with
+ * {@value #RECORDS_PER_USER} live and as many archived records each, spread over 2023 and 2024
+ * across kinds, statuses, categories and descriptions. Written in the test's transaction and
+ * analyzed there, so the rows and their column statistics roll back with it; only the table
+ * size estimates ANALYZE updates in place stay until the next autoanalyze.
+ */
+public final class PlanTestData {
+
+  public static final int USERS = 50;
+  public static final int RECORDS_PER_USER = 400;
+  public static final int HEAVY_USER_RECORDS = 20_000;
+
+  private static final String RECORDS =
+      """
+      insert into %s (id, user_id, category_id, kind, status, amount, due_date, description%s)
+      select gen_random_uuid(), u.id, c.ids[1 + g %% 8],
+             case when g %% 5 = 0 then 'INCOME' else 'EXPENSE' end,
+             (array['PENDING', 'PAID', 'RECEIVED', 'CANCELED'])[1 + g %% 4],
+             round((random() * 500)::numeric, 2),
+             date '2023-01-01' + (g * 7919 %% 730),
+             (array['rent', 'groceries', 'salary', 'electricity bill', 'gym membership', 'car insurance',
+                    'internet', 'restaurant', 'pharmacy', 'book store'])[1 + g %% 10] || ' #' || g%s
+      from unnest(?::uuid[]) with ordinality u(id, n)
+      cross join lateral (select array_agg(c.id) as ids from category c where c.user_id = u.id) c
+      cross join generate_series(1, case when u.n = 1 then ? else ? end) g
+      """;
+
+  private PlanTestData() {
+  }
+
+  /**
+   * Seeds the rows and refreshes the planner statistics; returns the seeded user ids. The first
+   * has {@value #HEAVY_USER_RECORDS} live records, the long ledger the search indexes are for.
+   */
+  public static List<UUID> seed(JdbcTemplate jdbc) {
+    List<UUID> users = jdbc.queryForList(
+        """
+        insert into app_user (id, email, password_hash, full_name)
+        select id, 'plan-' || id || '@example.test', 'x', 'Plan test'
+        from (select gen_random_uuid() as id from generate_series(1, ?)) u
+        returning id
+        """, UUID.class, USERS);
+    UUID[] ids = users.toArray(UUID[]::new);
+    jdbc.update(
+        """
+        insert into category (user_id, name)
+        select u.id, 'category ' || n
+        from unnest(?::uuid[]) u(id)
+        cross join generate_series(1, 8) n
+        """, (Object) ids);
+    jdbc.update(RECORDS.formatted("record", "", ""), ids, HEAVY_USER_RECORDS, RECORDS_PER_USER);
+    jdbc.update(RECORDS.formatted("record_archive", ", version", ", 0"), ids, RECORDS_PER_USER, RECORDS_PER_USER);
+    // Fresh rows wait in the GIN pending lists until a vacuum; a settled table has none there.
+    jdbc.queryForList(
+        """
+        select gin_clean_pending_list(c.oid)
+        from pg_class c join pg_am a on a.oid = c.relam
+        where a.amname = 'gin' and c.relkind = 'i'
+        """);
+    jdbc.execute("analyze app_user, category, record, record_archive");
+    return users;
+  }
+}
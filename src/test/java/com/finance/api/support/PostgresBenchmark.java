@@ -0,0 +1,20 @@
+package com.finance.api.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.Tag;
+
+/**
+ * A {@link PostgresPlanTest} slice that measures rather than explains, with {@link Measurement}.
+ * Only allocation is asserted, as time on a shared machine is too noisy to fail a build on;
+ * both are logged. Tagged, so {@code -DexcludedGroups=benchmark} leaves these out.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@PostgresPlanTest
+@Tag("benchmark")
+public @interface PostgresBenchmark {
+}
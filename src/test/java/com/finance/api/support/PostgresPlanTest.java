@@ -0,0 +1,30 @@
+package com.finance.api.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * JPA slice against the PostgreSQL database in {@code TEST_DB_URL} (migrated by Flyway on
+ * start, rolled back after each test); skipped when the variable is unset. Statements Hibernate
+ * sends are recorded by {@link CapturedStatements}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "TEST_DB_URL", matches = ".+")
+@TestPropertySource(properties = {
+    "spring.datasource.url=${TEST_DB_URL}",
+    "spring.datasource.username=${TEST_DB_USER:postgres}",
+    "spring.datasource.password=${TEST_DB_PASS:}",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.finance.api.support.CapturedStatements"
+})
+public @interface PostgresPlanTest {
+}
@@ -0,0 +1,95 @@
+package com.finance.api.support;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Indexes and sequentially scanned tables of an {@code EXPLAIN (FORMAT JSON)} plan. Partition
+ * indexes and tables are reported by the name of their partitioned parent, so assertions name
+ * the indexes the migrations create. Sequential scans of tables without a single page, such as
+ * monthly partitions created ahead of time, cost nothing and are left out.
+ */
+public record QueryPlan(Set<String> indexes, Set<String> seqScans, String json) {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Plans {@code sql} against the statistics of {@link PlanTestData}. Statements with JDBC
+   * {@code ?} placeholders are prepared and explained as the generic plan, which holds for any
+   * values; {@code values} only drive partition pruning at executor start, as they do in
+   * production.
+   */
+  public static QueryPlan explain(JdbcTemplate jdbc, String sql, Object... values) {
+    if (values.length == 0) {
+      return parse(jdbc, jdbc.queryForObject("explain (format json) " + sql, String.class));
+    }
+    jdbc.execute("set local plan_cache_mode = force_generic_plan");
+    // Prepared statements outlive the transaction, so one left by a failed test is dropped first.
+    if (!jdbc.queryForList("select 1 from pg_prepared_statements where name = 'plan_under_test'").isEmpty()) {
+      jdbc.execute("deallocate plan_under_test");
+    }
+    jdbc.execute("prepare plan_under_test as " + numberPlaceholders(sql));
+    String literals = Arrays.stream(values)
+        .map(v -> "'" + String.valueOf(v).replace("'", "''") + "'")
+        .collect(Collectors.joining(", "));
+    String json = jdbc.queryForObject("explain (format json) execute plan_under_test(" + literals + ")", String.class);
+    jdbc.execute("deallocate plan_under_test");
+    return parse(jdbc, json);
+  }
+
+  /** Reads a plan produced elsewhere, e.g. through a native query with bound parameters. */
+  public static QueryPlan parse(JdbcTemplate jdbc, String json) {
+    Set<String> indexes = new LinkedHashSet<>();
+    Set<String> seqScans = new LinkedHashSet<>();
+    try {
+      collect(MAPPER.readTree(json).get(0).get("Plan"), jdbc, indexes, seqScans);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Unreadable plan: " + json, ex);
+    }
+    return new QueryPlan(indexes, seqScans, json);
+  }
+
+  private static void collect(JsonNode node, JdbcTemplate jdbc, Set<String> indexes, Set<String> seqScans) {
+    if (node.has("Index Name")) {
+      indexes.add(root(jdbc, node.get("Index Name").asText()));
+    }
+    if ("Seq Scan".equals(node.path("Node Type").asText()) && hasPages(jdbc, node.get("Relation Name").asText())) {
+      seqScans.add(root(jdbc, node.get("Relation Name").asText()));
+    }
+    for (JsonNode child : node.path("Plans")) {
+      collect(child, jdbc, indexes, seqScans);
+    }
+  }
+
+  private static String root(JdbcTemplate jdbc, String relation) {
+    return jdbc.queryForObject(
+        "select coalesce(pg_partition_root(c.oid), c.oid)::regclass::text from pg_class c where c.relname = ?",
+        String.class, relation);
+  }
+
+  private static boolean hasPages(JdbcTemplate jdbc, String relation) {
+    return Boolean.TRUE.equals(jdbc.queryForObject(
+        "select pg_relation_size(c.oid) > 0 from pg_class c where c.relname = ?", Boolean.class, relation));
+  }
+
+  private static String numberPlaceholders(String sql) {
+    var out = new StringBuilder(sql.length() + 16);
+    int n = 0;
+    for (char ch : sql.toCharArray()) {
+      if (ch == '?') {
+        out.append('$').append(++n);
+      } else {
+        out.append(ch);
+      }
+    }
+    return out.toString();
+  }
+}